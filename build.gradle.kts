@@ -10,6 +10,7 @@ plugins {
     alias(libs.plugins.changelog) // Gradle Changelog Plugin
     alias(libs.plugins.qodana) // Gradle Qodana Plugin
     alias(libs.plugins.kover) // Gradle Kover Plugin
+    alias(libs.plugins.jmh) // Gradle JMH Plugin
 }
 
 group = providers.gradleProperty("pluginGroup").get()
@@ -127,6 +128,27 @@ kover {
     }
 }
 
+// Configure Gradle JMH Plugin - read more: https://github.com/melix/jmh-gradle-plugin
+// Benchmarks of the generated builders: ./gradlew jmh, results in build/reports/jmh/results.json
+jmh {
+    jmhVersion = libs.versions.jmh
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
+// The benchmark models get their builders from the plugin's generators, see BenchmarkModelsTest
+val jmhModelsDirectory = layout.buildDirectory.dir("generated/sources/jmhModels/java")
+
+sourceSets {
+    named("jmh") {
+        java.srcDir(files(jmhModelsDirectory).builtBy("generateJmhModels"))
+    }
+}
+
 tasks {
     wrapper {
         gradleVersion = providers.gradleProperty("gradleVersion").get()
@@ -153,3 +175,28 @@ val runIdeForUiTests by intellijPlatformTesting.runIde.registering {
         robotServerPlugin(Constraints.LATEST_VERSION)
     }
 }
+
+// Headless builder generation, e.g. ./gradlew generateInnerBuilders -PinnerBuilderArgs="/path/to/project com.example.model"
+val generateInnerBuilders by intellijPlatformTesting.runIde.registering {
+    task {
+        val innerBuilderArgs = providers.gradleProperty("innerBuilderArgs")
+        argumentProviders += CommandLineArgumentProvider {
+            listOf("generateInnerBuilders") + innerBuilderArgs.get().split(' ').filter { it.isNotBlank() }
+        }
+        jvmArgumentProviders += CommandLineArgumentProvider {
+            listOf("-Djava.awt.headless=true")
+        }
+    }
+}
+
+// Generates the builders of the benchmark models in src/jmh/models into the jmh source set
+val generateJmhModels by intellijPlatformTesting.testIde.registering {
+    task {
+        filter {
+            includeTestsMatching("com.github.junkfactory.innerbuilder.generators.BenchmarkModelsTest")
+        }
+        systemProperty("innerbuilder.jmh.generatedModels", jmhModelsDirectory.get().asFile.path)
+        inputs.dir("src/jmh/models")
+        outputs.dir(jmhModelsDirectory)
+    }
+}
@@ -0,0 +1,38 @@
+plugins {
+    id("java-library")
+}
+
+group = providers.gradleProperty("pluginGroup").get()
+version = providers.gradleProperty("pluginVersion").get()
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+tasks {
+    test {
+        exclude("**/*BenchmarkTest.class")
+    }
+
+    register<Test>("benchmark") {
+        description = "Times javac on a generated module of 5000 annotated classes with and without the processor."
+        group = "verification"
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        include("**/*BenchmarkTest.class")
+        maxHeapSize = "4g"
+        systemProperty("innerbuilder.benchmark.results",
+            layout.buildDirectory.file("reports/benchmark/processor.json").get().asFile.path)
+        outputs.upToDateWhen { false }
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the source of a builder. Set fields are tracked like the IDE action does with its presence bitmask: up to
+ * 32 properties in a single {@code int}, more in as many {@code long} words as needed.
+ *
+ * @param targetName    qualified name of the built class
+ * @param builderName   simple name of the builder
+ * @param isPublic      {@code true} if the builder and its methods are public
+ * @param properties    values collected for the constructor of the built class, in parameter order
+ * @param withToBuilder {@code true} to generate a static {@code toBuilder()} method
+ * @param withValidate  {@code true} to fail {@code build()} if a required property was not set
+ * @param withGenerated {@code true} to mark the builder with {@code javax.annotation.processing.Generated}
+ * @param setFieldsName name of the bitmask fields, followed by the word index if there are several
+ */
+record BuilderSource(String targetName,
+                     String builderName,
+                     boolean isPublic,
+                     List<Property> properties,
+                     boolean withToBuilder,
+                     boolean withValidate,
+                     boolean withGenerated,
+                     String setFieldsName) {
+
+    private static final String SET_FIELDS = "setFields";
+    private static final String INDENT = "    ";
+
+    BuilderSource(String targetName,
+                  String builderName,
+                  boolean isPublic,
+                  List<Property> properties,
+                  boolean withToBuilder,
+                  boolean withValidate,
+                  boolean withGenerated) {
+        this(targetName, builderName, isPublic, properties, withToBuilder, withValidate, withGenerated,
+                setFieldsName(properties));
+    }
+
+    String render(String packageName) {
+        var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        if (withGenerated) {
+            source.append("@javax.annotation.processing.Generated(\"")
+                    .append(InnerBuilderProcessor.class.getName())
+                    .append("\")\n");
+        }
+        source.append(modifier()).append("final class ").append(builderName).append(" {\n\n");
+        for (var property : properties) {
+            line(source, 1, "private " + property.type() + " " + property.name() + ";");
+        }
+        if (withValidate) {
+            for (var word = 0; word < wordCount(); word++) {
+                line(source, 1, "private " + (isLong() ? "long " : "int ") + wordName(word) + ";");
+            }
+        }
+        source.append('\n');
+        line(source, 1, "private " + builderName + "() {");
+        line(source, 1, "}");
+        source.append('\n');
+        line(source, 1, modifier() + "static " + builderName + " builder() {");
+        line(source, 2, "return new " + builderName + "();");
+        line(source, 1, "}");
+        if (withToBuilder) {
+            renderToBuilder(source);
+        }
+        for (var i = 0; i < properties.size(); i++) {
+            renderSetter(source, i);
+        }
+        if (withValidate) {
+            renderValidate(source);
+        }
+        renderBuild(source);
+        return source.append("}\n").toString();
+    }
+
+    private void renderToBuilder(StringBuilder source) {
+        source.append('\n');
+        line(source, 1, modifier() + "static " + builderName + " toBuilder(" + targetName + " source) {");
+        line(source, 2, "var builder = new " + builderName + "();");
+        for (var property : properties) {
+            line(source, 2, "builder." + property.name() + " = source." + property.accessor() + ";");
+        }
+        if (withValidate) {
+            for (var word = 0; word < wordCount(); word++) {
+                var wordBits = isLong() ? Long.SIZE : Integer.SIZE;
+                var bitCount = Math.min(wordBits, properties.size() - word * wordBits);
+                var all = bitCount == Long.SIZE ? -1L : (1L << bitCount) - 1;
+                line(source, 2, "builder." + wordName(word) + " = " + literal(all) + ";");
+            }
+        }
+        line(source, 2, "return builder;");
+        line(source, 1, "}");
+    }
+
+    private void renderSetter(StringBuilder source, int index) {
+        var property = properties.get(index);
+        source.append('\n');
+        line(source, 1, modifier() + builderName + " " + property.name() + "(" + property.type() + " " +
+                property.name() + ") {");
+        line(source, 2, "this." + property.name() + " = " + property.name() + ";");
+        if (withValidate) {
+            line(source, 2, wordName(wordOf(index)) + " |= " + literal(1L << bitOf(index)) + ";");
+        }
+        line(source, 2, "return this;");
+        line(source, 1, "}");
+    }
+
+    private void renderValidate(StringBuilder source) {
+        var conditions = new ArrayList<String>();
+        for (var word = 0; word < wordCount(); word++) {
+            var requiredMask = 0L;
+            for (var i = 0; i < properties.size(); i++) {
+                if (properties.get(i).required() && wordOf(i) == word) {
+                    requiredMask |= 1L << bitOf(i);
+                }
+            }
+            if (requiredMask != 0) {
+                var mask = literal(requiredMask);
+                conditions.add("(" + wordName(word) + " & " + mask + ") != " + mask);
+            }
+        }
+        source.append('\n');
+        line(source, 1, "private void validate() {");
+        if (!conditions.isEmpty()) {
+            line(source, 2, "if (" + String.join(" || ", conditions) + ") {");
+            line(source, 3, "var missing = new StringBuilder();");
+            for (var i = 0; i < properties.size(); i++) {
+                if (properties.get(i).required()) {
+                    line(source, 3, "if ((" + wordName(wordOf(i)) + " & " + literal(1L << bitOf(i)) + ") == 0) {");
+                    line(source, 4, "missing.append(\" " + properties.get(i).name() + "\");");
+                    line(source, 3, "}");
+                }
+            }
+            line(source, 3, "throw new IllegalStateException(\"Required fields not set:\" + missing);");
+            line(source, 2, "}");
+        }
+        line(source, 1, "}");
+    }
+
+    private void renderBuild(StringBuilder source) {
+        var arguments = properties.stream()
+                .map(Property::name)
+                .toList();
+        source.append('\n');
+        line(source, 1, modifier() + targetName + " build() {");
+        if (withValidate) {
+            line(source, 2, "validate();");
+        }
+        line(source, 2, "return new " + targetName + "(" + String.join(", ", arguments) + ");");
+        line(source, 1, "}");
+    }
+
+    private String modifier() {
+        return isPublic ? "public " : "";
+    }
+
+    private boolean isLong() {
+        return properties.size() > Integer.SIZE;
+    }
+
+    private int wordCount() {
+        return isLong() ? (properties.size() + Long.SIZE - 1) / Long.SIZE : 1;
+    }
+
+    private String wordName(int word) {
+        return wordCount() == 1 ? setFieldsName : setFieldsName + word;
+    }
+
+    /**
+     * @return name of the bitmask fields, prefixed with underscores while a property has the name of one of them
+     */
+    private static String setFieldsName(List<Property> properties) {
+        var name = SET_FIELDS;
+        while (isPropertyName(properties, name)) {
+            name = "_" + name;
+        }
+        return name;
+    }
+
+    private static boolean isPropertyName(List<Property> properties, String setFieldsName) {
+        return properties.stream()
+                .map(Property::name)
+                .anyMatch(name -> name.startsWith(setFieldsName) &&
+                        name.substring(setFieldsName.length()).chars().allMatch(Character::isDigit));
+    }
+
+    private int wordOf(int index) {
+        return isLong() ? index / Long.SIZE : 0;
+    }
+
+    private int bitOf(int index) {
+        return isLong() ? index % Long.SIZE : index;
+    }
+
+    private String literal(long mask) {
+        return isLong() ? "0x" + Long.toHexString(mask) + "L" : "0x" + Integer.toHexString((int) mask);
+    }
+
+    private static void line(StringBuilder source, int depth, String text) {
+        source.append(INDENT.repeat(depth)).append(text).append('\n');
+    }
+}
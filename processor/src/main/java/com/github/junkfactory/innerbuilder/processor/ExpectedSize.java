@@ -0,0 +1,20 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Expected number of elements of a collection field. Builders generated by the IDE action allocate the collection
+ * they add to with a matching capacity.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface ExpectedSize {
+
+    /**
+     * @return expected number of elements, ignored unless positive
+     */
+    int value();
+}
@@ -0,0 +1,28 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a builder for the annotated record or class at compile time, named after the class with a
+ * {@code Builder} suffix. Records are built with their canonical constructor, classes with their non-private
+ * constructor taking the most parameters, each of which must be named after a field of the class.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface InnerBuilder {
+
+    /**
+     * @return {@code true} to generate a static {@code toBuilder()} method copying an object into a new builder, see
+     * {@code JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD}
+     */
+    boolean toBuilder() default false;
+
+    /**
+     * @return {@code true} to track set fields in a bitmask and fail {@code build()} with the names of unset required
+     * (final) fields, see {@code JavaInnerBuilderOption.WITH_VALIDATE_METHOD}
+     */
+    boolean validate() default false;
+}
@@ -0,0 +1,175 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates the builders of classes annotated with {@link InnerBuilder}. Each builder is generated from its annotated
+ * class alone, so the processor is isolating for Gradle incremental compilation.
+ * <p>
+ * Unlike the IDE action, a processor cannot add members to the annotated class, so the builder is a top-level class
+ * next to it, {@code toBuilder()} is a static method of the builder, and collections get plain setters as field
+ * initializers are not visible to processors.
+ */
+@SupportedAnnotationTypes("com.github.junkfactory.innerbuilder.processor.InnerBuilder")
+public class InnerBuilderProcessor extends AbstractProcessor {
+
+    private static final String BUILDER_SUFFIX = "Builder";
+    private static final String GENERATED_ANNOTATION = "javax.annotation.processing.Generated";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (var element : roundEnv.getElementsAnnotatedWith(InnerBuilder.class)) {
+            if (element instanceof TypeElement targetType) {
+                generateBuilder(targetType);
+            }
+        }
+        return true;
+    }
+
+    private void generateBuilder(TypeElement targetType) {
+        if (!targetType.getTypeParameters().isEmpty()) {
+            error(targetType, "@InnerBuilder does not support generic classes");
+            return;
+        }
+        if (targetType.getNestingKind() == NestingKind.MEMBER && !targetType.getModifiers().contains(Modifier.STATIC)) {
+            error(targetType, "@InnerBuilder does not support inner classes, make the class static");
+            return;
+        }
+        if (targetType.getModifiers().contains(Modifier.PRIVATE) ||
+                targetType.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(targetType, "@InnerBuilder needs a non-private, non-abstract class");
+            return;
+        }
+        var options = targetType.getAnnotation(InnerBuilder.class);
+        var properties = targetType.getKind() == ElementKind.RECORD ?
+                recordProperties(targetType) : classProperties(targetType, options.toBuilder());
+        if (properties == null) {
+            return;
+        }
+        var elementUtils = processingEnv.getElementUtils();
+        var packageName = elementUtils.getPackageOf(targetType).getQualifiedName().toString();
+        var builderName = builderName(targetType);
+        var source = new BuilderSource(targetType.getQualifiedName().toString(), builderName,
+                targetType.getModifiers().contains(Modifier.PUBLIC), properties, options.toBuilder(),
+                options.validate(), elementUtils.getTypeElement(GENERATED_ANNOTATION) != null);
+        var qualifiedBuilderName = packageName.isEmpty() ? builderName : packageName + "." + builderName;
+        try (var writer = processingEnv.getFiler().createSourceFile(qualifiedBuilderName, targetType).openWriter()) {
+            writer.write(source.render(packageName));
+        } catch (IOException e) {
+            error(targetType, "Unable to write " + qualifiedBuilderName + ": " + e.getMessage());
+        }
+    }
+
+    private static List<Property> recordProperties(TypeElement targetType) {
+        var properties = new ArrayList<Property>();
+        for (var component : targetType.getRecordComponents()) {
+            var name = component.getSimpleName().toString();
+            properties.add(new Property(name, TypeNames.render(component.asType()), name + "()", true));
+        }
+        return properties;
+    }
+
+    /**
+     * The properties of a class are the parameters of its non-private constructor taking the most parameters, as
+     * they must be named after fields of the class. A property is required if its field is final.
+     *
+     * @return properties of the class, or {@code null} if it has no suitable constructor
+     */
+    private List<Property> classProperties(TypeElement targetType, boolean withToBuilder) {
+        var constructor = ElementFilter.constructorsIn(targetType.getEnclosedElements()).stream()
+                .filter(it -> !it.getModifiers().contains(Modifier.PRIVATE))
+                .max(Comparator.comparingInt(it -> it.getParameters().size()))
+                .filter(it -> !it.getParameters().isEmpty());
+        if (constructor.isEmpty()) {
+            error(targetType, "@InnerBuilder needs a non-private constructor taking the fields to build");
+            return null;
+        }
+        var fields = ElementFilter.fieldsIn(targetType.getEnclosedElements());
+        var properties = new ArrayList<Property>();
+        for (var parameter : constructor.get().getParameters()) {
+            var name = parameter.getSimpleName().toString();
+            var field = fields.stream()
+                    .filter(it -> it.getSimpleName().contentEquals(name) &&
+                            !it.getModifiers().contains(Modifier.STATIC))
+                    .findFirst()
+                    .orElse(null);
+            if (field == null) {
+                error(parameter, "@InnerBuilder needs constructor parameters named after fields, no field " + name);
+                return null;
+            }
+            var accessor = withToBuilder ? findAccessor(targetType, field) : null;
+            if (withToBuilder && accessor == null) {
+                error(field, "toBuilder() needs a non-private field or getter for " + name);
+                return null;
+            }
+            properties.add(new Property(name, TypeNames.render(parameter.asType()), accessor,
+                    field.getModifiers().contains(Modifier.FINAL)));
+        }
+        return properties;
+    }
+
+    /**
+     * @return expression reading the field from an object of the class, or {@code null} if it is not readable from
+     * the same package
+     */
+    private static String findAccessor(TypeElement targetType, VariableElement field) {
+        var name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return name;
+        }
+        var capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (var method : ElementFilter.methodsIn(targetType.getEnclosedElements())) {
+            var methodName = method.getSimpleName().toString();
+            if (isGetter(method, field) && (methodName.equals("get" + capitalizedName) ||
+                    methodName.equals("is" + capitalizedName) || methodName.equals(name))) {
+                return methodName + "()";
+            }
+        }
+        return null;
+    }
+
+    private static boolean isGetter(ExecutableElement method, VariableElement field) {
+        return method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.PRIVATE) &&
+                !method.getModifiers().contains(Modifier.STATIC) &&
+                TypeNames.render(method.getReturnType()).equals(TypeNames.render(field.asType()));
+    }
+
+    /**
+     * @return name of the builder, prefixed with the names of the enclosing classes of a nested class
+     */
+    private static String builderName(TypeElement targetType) {
+        var name = new StringBuilder(targetType.getSimpleName()).append(BUILDER_SUFFIX);
+        var enclosing = targetType.getEnclosingElement();
+        while (enclosing instanceof TypeElement enclosingType) {
+            name.insert(0, enclosingType.getSimpleName() + "_");
+            enclosing = enclosingType.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+/**
+ * A value the builder collects for the constructor of the built class.
+ *
+ * @param name     name of the constructor parameter and of the field it is stored in
+ * @param type     source text of the type
+ * @param accessor expression reading the value from a built object, relative to the object, or {@code null} if
+ *                 {@code toBuilder()} is not generated
+ * @param required {@code true} if {@code build()} fails unless the value was set
+ */
+record Property(String name, String type, String accessor, boolean required) {
+}
@@ -0,0 +1,102 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.SimpleTypeVisitor14;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Renders types as source text. {@link TypeMirror#toString()} puts type-use annotations in front of the qualified
+ * name, e.g. {@code @NonNull java.lang.String}, which does not compile, so annotations are placed in front of the
+ * simple name instead, e.g. {@code java.lang.@NonNull String}, and after the component type of arrays.
+ */
+final class TypeNames extends SimpleTypeVisitor14<String, Void> {
+
+    private static final TypeNames INSTANCE = new TypeNames();
+
+    private TypeNames() {
+    }
+
+    static String render(TypeMirror type) {
+        return type.accept(INSTANCE, null);
+    }
+
+    @Override
+    protected String defaultAction(TypeMirror type, Void unused) {
+        return type.toString();
+    }
+
+    @Override
+    public String visitPrimitive(PrimitiveType type, Void unused) {
+        return annotations(type) + type.getKind().name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String visitArray(ArrayType type, Void unused) {
+        //the annotations of the outermost array come first, e.g. String @A [] @B [] is an @A array of @B arrays
+        var dimensions = new StringBuilder();
+        TypeMirror componentType = type;
+        while (componentType instanceof ArrayType arrayType) {
+            var annotations = annotations(arrayType);
+            dimensions.append(annotations.isEmpty() ? "" : " " + annotations).append("[]");
+            componentType = arrayType.getComponentType();
+        }
+        return render(componentType) + dimensions;
+    }
+
+    @Override
+    public String visitDeclared(DeclaredType type, Void unused) {
+        var element = (TypeElement) type.asElement();
+        var text = new StringBuilder();
+        var enclosingType = type.getEnclosingType();
+        if (enclosingType.getKind() == TypeKind.DECLARED) {
+            text.append(render(enclosingType)).append('.');
+        } else if (element.getEnclosingElement() instanceof TypeElement enclosingElement) {
+            text.append(enclosingElement.getQualifiedName()).append('.');
+        } else if (element.getEnclosingElement() instanceof PackageElement packageElement &&
+                !packageElement.isUnnamed()) {
+            text.append(packageElement.getQualifiedName()).append('.');
+        }
+        text.append(annotations(type)).append(element.getSimpleName());
+        if (!type.getTypeArguments().isEmpty()) {
+            text.append(type.getTypeArguments().stream()
+                    .map(TypeNames::render)
+                    .collect(Collectors.joining(", ", "<", ">")));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String visitWildcard(WildcardType type, Void unused) {
+        var text = annotations(type) + "?";
+        if (type.getExtendsBound() != null) {
+            return text + " extends " + render(type.getExtendsBound());
+        }
+        if (type.getSuperBound() != null) {
+            return text + " super " + render(type.getSuperBound());
+        }
+        return text;
+    }
+
+    @Override
+    public String visitTypeVariable(TypeVariable type, Void unused) {
+        return annotations(type) + type.asElement().getSimpleName();
+    }
+
+    /**
+     * @return annotations of the type, each followed by a space
+     */
+    private static String annotations(TypeMirror type) {
+        return type.getAnnotationMirrors().stream()
+                .map(annotation -> annotation + " ")
+                .collect(Collectors.joining());
+    }
+}
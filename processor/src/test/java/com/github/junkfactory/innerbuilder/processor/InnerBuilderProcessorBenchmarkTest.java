@@ -0,0 +1,136 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compile time of a generated module of annotated classes and records with the processor, without it, and with the
+ * builders the processor writes compiled as plain sources. Compiling the builders is most of the cost of the
+ * processor, so the last run shows what the processor adds beyond that.
+ * <p>
+ * Runs only through {@code ./gradlew :processor:benchmark}, which sets the file the timings are written to.
+ */
+public class InnerBuilderProcessorBenchmarkTest {
+
+    static final String RESULTS_PROPERTY = "innerbuilder.benchmark.results";
+
+    private static final int CLASS_COUNT = 5_000;
+    private static final int FIELD_COUNT = 20;
+    private static final int RUNS = 3;
+
+    @Test
+    public void compileModule() throws IOException {
+        var resultsFile = System.getProperty(RESULTS_PROPERTY);
+        Assume.assumeNotNull(resultsFile);
+
+        var sources = corpus();
+        var sourcesWithBuilders = new ArrayList<>(sources);
+        sourcesWithBuilders.addAll(generatedBuilders(sources));
+        //warm up the compiler
+        InnerBuilderProcessorTest.compile(sources, true);
+        InnerBuilderProcessorTest.compile(sourcesWithBuilders, false);
+
+        var withoutNanos = bestCompileNanos(sources, false);
+        var buildersNanos = bestCompileNanos(sourcesWithBuilders, false);
+        var withNanos = bestCompileNanos(sources, true);
+        var results = Path.of(resultsFile);
+        Files.createDirectories(results.getParent());
+        Files.writeString(results, String.format("""
+                        {
+                          "classes": %d,
+                          "fields": %d,
+                          "withoutProcessorMs": %d,
+                          "withBuildersWrittenOutMs": %d,
+                          "withProcessorMs": %d
+                        }
+                        """, sources.size(), FIELD_COUNT, withoutNanos / 1_000_000, buildersNanos / 1_000_000,
+                withNanos / 1_000_000));
+    }
+
+    /**
+     * @return builders the processor generates for the sources
+     */
+    private static List<JavaFileObject> generatedBuilders(List<JavaFileObject> sources) throws IOException {
+        var outputDirectory = Files.createTempDirectory("innerBuilder");
+        try {
+            var diagnostics = InnerBuilderProcessorTest.compile(sources, true, outputDirectory);
+            assertEquals(List.of(), InnerBuilderProcessorTest.errors(diagnostics));
+            var builders = new ArrayList<JavaFileObject>();
+            try (var paths = Files.walk(outputDirectory)) {
+                for (var path : paths.filter(path -> path.toString().endsWith(".java")).toList()) {
+                    builders.add(InnerBuilderProcessorTest.sourceFile(Files.readString(path)));
+                }
+            }
+            assertEquals(sources.size(), builders.size());
+            return builders;
+        } finally {
+            InnerBuilderProcessorTest.delete(outputDirectory);
+        }
+    }
+
+    private static long bestCompileNanos(List<JavaFileObject> sources, boolean withProcessor) throws IOException {
+        var best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            var start = System.nanoTime();
+            var diagnostics = InnerBuilderProcessorTest.compile(sources, withProcessor);
+            best = Math.min(best, System.nanoTime() - start);
+            assertEquals(List.of(), InnerBuilderProcessorTest.errors(diagnostics));
+        }
+        return best;
+    }
+
+    /**
+     * @return annotated records and classes, half of them with {@code toBuilder()} and validation
+     */
+    private static List<JavaFileObject> corpus() {
+        var sources = new ArrayList<JavaFileObject>();
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            var options = i % 2 == 0 ? "(toBuilder = true, validate = true)" : "";
+            var source = new StringBuilder()
+                    .append("package com.example.corpus;\n")
+                    .append("import com.github.junkfactory.innerbuilder.processor.InnerBuilder;\n")
+                    .append("@InnerBuilder").append(options).append('\n');
+            if (i % 3 == 0) {
+                source.append("public record Model").append(i).append("(");
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    source.append(field == 0 ? "" : ", ").append(fieldType(field)).append(" field").append(field);
+                }
+                source.append(") {\n}\n");
+            } else {
+                source.append("public class Model").append(i).append(" {\n");
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    source.append("    final ").append(fieldType(field)).append(" field").append(field).append(";\n");
+                }
+                source.append("    Model").append(i).append("(");
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    source.append(field == 0 ? "" : ", ").append(fieldType(field)).append(" field").append(field);
+                }
+                source.append(") {\n");
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    source.append("        this.field").append(field).append(" = field").append(field).append(";\n");
+                }
+                source.append("    }\n}\n");
+            }
+            sources.add(InnerBuilderProcessorTest.sourceFile(source.toString()));
+        }
+        return sources;
+    }
+
+    private static String fieldType(int field) {
+        return switch (field % 4) {
+            case 0 -> "String";
+            case 1 -> "int";
+            case 2 -> "java.util.List<String>";
+            default -> "long";
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.junkfactory.innerbuilder.processor;
+
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class InnerBuilderProcessorTest {
+
+    private static final Pattern TYPE_DECLARATION = Pattern.compile("\\b(?:class|record|interface)\\s+(\\w+)");
+
+    @Test
+    public void rejectsInnerClass() throws IOException {
+        var diagnostics = compile("""
+                package com.example;
+                import com.github.junkfactory.innerbuilder.processor.InnerBuilder;
+                public class Outer {
+                    @InnerBuilder
+                    public class Inner {
+                        final int a;
+                        Inner(int a) { this.a = a; }
+                    }
+                }
+                """);
+        assertEquals(List.of("@InnerBuilder does not support inner classes, make the class static"),
+                errors(diagnostics));
+    }
+
+    @Test
+    public void buildsStaticMemberClass() throws IOException {
+        var diagnostics = compile("""
+                package com.example;
+                import com.github.junkfactory.innerbuilder.processor.InnerBuilder;
+                public class Outer {
+                    @InnerBuilder(toBuilder = true, validate = true)
+                    public static class Nested {
+                        final int a;
+                        Nested(int a) { this.a = a; }
+                    }
+                    static Nested create() {
+                        return Outer_NestedBuilder.builder().a(1).build();
+                    }
+                }
+                """);
+        assertEquals(List.of(), errors(diagnostics));
+    }
+
+    @Test
+    public void renamesBitmaskClashingWithProperty() throws IOException {
+        var diagnostics = compile("""
+                package com.example;
+                import com.github.junkfactory.innerbuilder.processor.InnerBuilder;
+                @InnerBuilder(toBuilder = true, validate = true)
+                public record Clash(String setFields, int _setFields, long setFields0) {
+                    static Clash copy(Clash clash) {
+                        return ClashBuilder.toBuilder(clash).setFields("changed").build();
+                    }
+                }
+                """);
+        assertEquals(List.of(), errors(diagnostics));
+    }
+
+    @Test
+    public void keepsTypeUseAnnotations() throws IOException {
+        var diagnostics = compile("""
+                package com.example.annotations;
+                import java.lang.annotation.ElementType;
+                import java.lang.annotation.Target;
+                @Target(ElementType.TYPE_USE)
+                public @interface NonNull {
+                }
+                """, """
+                package com.example;
+                import com.example.annotations.NonNull;
+                import com.github.junkfactory.innerbuilder.processor.InnerBuilder;
+                import java.util.List;
+                import java.util.Map;
+                @InnerBuilder(toBuilder = true, validate = true)
+                public record Annotated(@NonNull String name, List<@NonNull String> tags, @NonNull int count,
+                                        String @NonNull [] [] aliases, Map<String, ? extends @NonNull Number> values,
+                                        Map.@NonNull Entry<String, String> entry) {
+                    static Annotated copy(Annotated annotated) {
+                        return AnnotatedBuilder.toBuilder(annotated).name("changed").build();
+                    }
+                }
+                """);
+        assertEquals(List.of(), errors(diagnostics));
+    }
+
+    private static DiagnosticCollector<JavaFileObject> compile(String... sources) throws IOException {
+        return compile(List.of(sources).stream().map(InnerBuilderProcessorTest::sourceFile).toList(), true);
+    }
+
+    /**
+     * Compiles the sources into a temporary directory.
+     *
+     * @return diagnostics of the compilation
+     */
+    static DiagnosticCollector<JavaFileObject> compile(List<JavaFileObject> sources, boolean withProcessor)
+            throws IOException {
+        var outputDirectory = Files.createTempDirectory("innerBuilder");
+        try {
+            return compile(sources, withProcessor, outputDirectory);
+        } finally {
+            delete(outputDirectory);
+        }
+    }
+
+    /**
+     * Compiles the sources, writing classes and generated sources to the given directory.
+     *
+     * @return diagnostics of the compilation
+     */
+    static DiagnosticCollector<JavaFileObject> compile(List<JavaFileObject> sources, boolean withProcessor,
+                                                       Path outputDirectory) throws IOException {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDirectory.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(outputDirectory.toFile()));
+            var options = new ArrayList<>(List.of("-classpath", System.getProperty("java.class.path")));
+            if (!withProcessor) {
+                options.add("-proc:none");
+            }
+            var task = compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+            if (withProcessor) {
+                task.setProcessors(List.of(new InnerBuilderProcessor()));
+            }
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    static JavaFileObject sourceFile(String source) {
+        var packageName = source.lines()
+                .filter(line -> line.startsWith("package "))
+                .map(line -> line.substring("package ".length(), line.indexOf(';')))
+                .findFirst()
+                .orElse("");
+        var matcher = TYPE_DECLARATION.matcher(source);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("No type declared in " + source);
+        }
+        var className = matcher.group(1);
+        var path = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/") + className;
+        return new SimpleJavaFileObject(URI.create("string:///" + path + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted((first, second) -> second.getNameCount() - first.getNameCount())
+                    .forEach(path -> {
+                        try {
+                            Files.delete(path);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+    }
+}
@@ -1,4 +1,6 @@
 plugins {
     id("org.gradle.toolchains.foojay-resolver-convention") version "0.8.0"
 }
-rootProject.name = "java-inner-builder"
\ No newline at end of file
+rootProject.name = "java-inner-builder"
+
+include("processor")
@@ -0,0 +1,68 @@
+package com.github.junkfactory.innerbuilder.benchmark;
+
+import com.github.junkfactory.innerbuilder.benchmark.model.Trade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building many objects from columns of values with the {@code BatchBuilder} against a builder per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class BatchBuilderBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private long[] ids;
+    private String[] symbols;
+    private double[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        ids = new long[rows];
+        symbols = new String[rows];
+        prices = new double[rows];
+        quantities = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = i;
+            symbols[i] = "SYM" + (i % 100);
+            prices[i] = i * 0.25;
+            quantities[i] = i % 1_000;
+        }
+    }
+
+    @Benchmark
+    public Trade[] builderPerRow() {
+        var built = new Trade[rows];
+        for (int i = 0; i < rows; i++) {
+            built[i] = Trade.builder()
+                    .id(ids[i])
+                    .symbol(symbols[i])
+                    .price(prices[i])
+                    .quantity(quantities[i])
+                    .build();
+        }
+        return built;
+    }
+
+    @Benchmark
+    public Trade[] batchBuilder() {
+        return Trade.batchBuilder()
+                .id(ids)
+                .symbol(symbols)
+                .price(prices)
+                .quantity(quantities)
+                .build();
+    }
+}
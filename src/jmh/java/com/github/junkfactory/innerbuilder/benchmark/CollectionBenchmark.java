@@ -0,0 +1,88 @@
+package com.github.junkfactory.innerbuilder.benchmark;
+
+import com.github.junkfactory.innerbuilder.benchmark.model.Order;
+import com.github.junkfactory.innerbuilder.benchmark.model.OrderCopyOnWrite;
+import com.github.junkfactory.innerbuilder.benchmark.model.OrderImmutable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builders of a collection-heavy class: sharing or copying the collections on build, and a copying or copy-on-write
+ * {@code toBuilder()} changing a field that is not a collection.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CollectionBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<String> items;
+    private Order order;
+    private OrderImmutable immutableOrder;
+    private OrderCopyOnWrite copyOnWriteOrder;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("item" + i);
+        }
+        order = buildShared();
+        immutableOrder = buildImmutable();
+        copyOnWriteOrder = buildCopyOnWrite();
+    }
+
+    @Benchmark
+    public Order buildShared() {
+        return Order.builder()
+                .id("order")
+                .addAllToItems(items)
+                .putToQuantities("item0", size)
+                .build();
+    }
+
+    @Benchmark
+    public OrderImmutable buildImmutable() {
+        return OrderImmutable.builder()
+                .id("order")
+                .addAllToItems(items)
+                .putToQuantities("item0", size)
+                .build();
+    }
+
+    @Benchmark
+    public OrderCopyOnWrite buildCopyOnWrite() {
+        return OrderCopyOnWrite.builder()
+                .id("order")
+                .addAllToItems(items)
+                .putToQuantities("item0", size)
+                .build();
+    }
+
+    @Benchmark
+    public Order toBuilderRoundTrip() {
+        return order.toBuilder().id("changed").build();
+    }
+
+    @Benchmark
+    public OrderImmutable toBuilderRoundTripImmutable() {
+        return immutableOrder.toBuilder().id("changed").build();
+    }
+
+    @Benchmark
+    public OrderCopyOnWrite toBuilderRoundTripCopyOnWrite() {
+        return copyOnWriteOrder.toBuilder().id("changed").build();
+    }
+}
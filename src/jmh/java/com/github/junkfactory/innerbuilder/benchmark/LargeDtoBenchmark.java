@@ -0,0 +1,93 @@
+package com.github.junkfactory.innerbuilder.benchmark;
+
+import com.github.junkfactory.innerbuilder.benchmark.model.LargeDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default builder of a class with 50 fields, built from scratch and changed through {@code toBuilder()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LargeDtoBenchmark {
+
+    private String text;
+    private int number;
+    private LargeDto dto;
+
+    @Setup
+    public void setUp() {
+        text = "value";
+        number = 42;
+        dto = build();
+    }
+
+    @Benchmark
+    public LargeDto build() {
+        return LargeDto.builder()
+                .field00(text)
+                .field01(number)
+                .field02(number)
+                .field03(true)
+                .field04(number)
+                .field05(text)
+                .field06(number)
+                .field07(number)
+                .field08(true)
+                .field09(number)
+                .field10(text)
+                .field11(number)
+                .field12(number)
+                .field13(true)
+                .field14(number)
+                .field15(text)
+                .field16(number)
+                .field17(number)
+                .field18(true)
+                .field19(number)
+                .field20(text)
+                .field21(number)
+                .field22(number)
+                .field23(true)
+                .field24(number)
+                .field25(text)
+                .field26(number)
+                .field27(number)
+                .field28(true)
+                .field29(number)
+                .field30(text)
+                .field31(number)
+                .field32(number)
+                .field33(true)
+                .field34(number)
+                .field35(text)
+                .field36(number)
+                .field37(number)
+                .field38(true)
+                .field39(number)
+                .field40(text)
+                .field41(number)
+                .field42(number)
+                .field43(true)
+                .field44(number)
+                .field45(text)
+                .field46(number)
+                .field47(number)
+                .field48(true)
+                .field49(number)
+                .build();
+    }
+
+    @Benchmark
+    public LargeDto toBuilderRoundTrip() {
+        return dto.toBuilder().field00(text + number).build();
+    }
+}
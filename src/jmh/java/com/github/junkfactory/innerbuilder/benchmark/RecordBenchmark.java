@@ -0,0 +1,53 @@
+package com.github.junkfactory.innerbuilder.benchmark;
+
+import com.github.junkfactory.innerbuilder.benchmark.model.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder of a record against its canonical constructor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RecordBenchmark {
+
+    private double x;
+    private double y;
+    private String label;
+    private Point point;
+
+    @Setup
+    public void setUp() {
+        x = 1.5;
+        y = -2.5;
+        label = "origin";
+        point = build();
+    }
+
+    @Benchmark
+    public Point constructor() {
+        return new Point(x, y, label);
+    }
+
+    @Benchmark
+    public Point build() {
+        return Point.builder()
+                .x(x)
+                .y(y)
+                .label(label)
+                .build();
+    }
+
+    @Benchmark
+    public Point toBuilderRoundTrip() {
+        return point.toBuilder().x(x + 1).build();
+    }
+}
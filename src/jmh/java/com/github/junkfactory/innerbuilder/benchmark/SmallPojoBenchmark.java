@@ -0,0 +1,91 @@
+package com.github.junkfactory.innerbuilder.benchmark;
+
+import com.github.junkfactory.innerbuilder.benchmark.model.SmallPojo;
+import com.github.junkfactory.innerbuilder.benchmark.model.SmallPojoBitmask;
+import com.github.junkfactory.innerbuilder.benchmark.model.SmallPojoDirect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder variants of a small class: the default builder, a presence bitmask and direct writes, and changing one
+ * field through {@code toBuilder()} or a wither.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SmallPojoBenchmark {
+
+    private String name;
+    private int age;
+    private String email;
+    private SmallPojo pojo;
+    private SmallPojoBitmask bitmaskPojo;
+    private SmallPojoDirect directPojo;
+
+    @Setup
+    public void setUp() {
+        name = "Ada";
+        age = 36;
+        email = "ada@example.com";
+        pojo = buildDefault();
+        bitmaskPojo = buildBitmask();
+        directPojo = buildDirect();
+    }
+
+    @Benchmark
+    public SmallPojo buildDefault() {
+        return SmallPojo.builder()
+                .name(name)
+                .age(age)
+                .email(email)
+                .active(true)
+                .build();
+    }
+
+    @Benchmark
+    public SmallPojoBitmask buildBitmask() {
+        return SmallPojoBitmask.builder()
+                .name(name)
+                .age(age)
+                .email(email)
+                .active(true)
+                .build();
+    }
+
+    @Benchmark
+    public SmallPojoDirect buildDirect() {
+        return SmallPojoDirect.builder()
+                .name(name)
+                .age(age)
+                .email(email)
+                .active(true)
+                .build();
+    }
+
+    @Benchmark
+    public SmallPojo toBuilderRoundTrip() {
+        return pojo.toBuilder().age(age + 1).build();
+    }
+
+    @Benchmark
+    public SmallPojoBitmask toBuilderRoundTripBitmask() {
+        return bitmaskPojo.toBuilder().age(age + 1).build();
+    }
+
+    @Benchmark
+    public SmallPojoDirect toBuilderRoundTripDirect() {
+        return directPojo.toBuilder().age(age + 1).build();
+    }
+
+    @Benchmark
+    public SmallPojo wither() {
+        return pojo.withAge(age + 1);
+    }
+}
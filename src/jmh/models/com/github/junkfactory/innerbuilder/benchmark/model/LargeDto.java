@@ -0,0 +1,61 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * Data transfer object with 50 fields, the default builder and {@code toBuilder()}.
+ */
+public class LargeDto {
+    private final String field00;
+    private final int field01;
+    private final long field02;
+    private final boolean field03;
+    private final double field04;
+    private final String field05;
+    private final int field06;
+    private final long field07;
+    private final boolean field08;
+    private final double field09;
+    private final String field10;
+    private final int field11;
+    private final long field12;
+    private final boolean field13;
+    private final double field14;
+    private final String field15;
+    private final int field16;
+    private final long field17;
+    private final boolean field18;
+    private final double field19;
+    private final String field20;
+    private final int field21;
+    private final long field22;
+    private final boolean field23;
+    private final double field24;
+    private final String field25;
+    private final int field26;
+    private final long field27;
+    private final boolean field28;
+    private final double field29;
+    private final String field30;
+    private final int field31;
+    private final long field32;
+    private final boolean field33;
+    private final double field34;
+    private final String field35;
+    private final int field36;
+    private final long field37;
+    private final boolean field38;
+    private final double field39;
+    private final String field40;
+    private final int field41;
+    private final long field42;
+    private final boolean field43;
+    private final double field44;
+    private final String field45;
+    private final int field46;
+    private final long field47;
+    private final boolean field48;
+    private final double field49;
+
+    public String getField00() {
+        return field00;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Order} with the builder passing immutable copies of its collections.
+ */
+public class OrderImmutable {
+    private final String id;
+    private List<String> items = new ArrayList<>();
+    private Map<String, Integer> quantities = new HashMap<>();
+
+    public List<String> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * Record with the builder and {@code toBuilder()}.
+ */
+public record Point(double x, double y, String label) {
+}
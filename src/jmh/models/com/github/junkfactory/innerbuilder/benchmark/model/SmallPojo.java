@@ -0,0 +1,19 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * Small class with the default builder, {@code toBuilder()} and withers.
+ */
+public class SmallPojo {
+    private final String name;
+    private final int age;
+    private final String email;
+    private final boolean active;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+}
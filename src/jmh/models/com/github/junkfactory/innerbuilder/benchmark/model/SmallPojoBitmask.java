@@ -0,0 +1,19 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * {@link SmallPojo} with the builder tracking set fields in a presence bitmask and validating them.
+ */
+public class SmallPojoBitmask {
+    private final String name;
+    private final Integer age;
+    private final String email;
+    private final boolean active;
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * {@link SmallPojo} with non-final fields and a builder writing directly into the object.
+ */
+public class SmallPojoDirect {
+    private String name;
+    private int age;
+    private String email;
+    private boolean active;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.junkfactory.innerbuilder.benchmark.model;
+
+/**
+ * Class with the default builder and a {@code BatchBuilder}.
+ */
+public class Trade {
+    private final long id;
+    private final String symbol;
+    private final double price;
+    private final int quantity;
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.junkfactory.innerbuilder;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderSettings;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.search.ProjectScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+public class BulkInnerBuilderAction extends AnAction {
+
+    static final String NOTIFICATION_GROUP = "Java Inner Builder";
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        var files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && files != null && files.length > 0);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        var project = e.getProject();
+        var files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if (project == null || files == null || files.length == 0) {
+            return;
+        }
+
+        var scope = createScope(project, files);
+        var generator = new BulkInnerBuilderGenerator(project,
+                JavaInnerBuilderSettings.getInstance(project)::getOptions);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Generating inner builders", true) {
+            private BulkInnerBuilderGenerator.Report report;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                report = generator.generate(scope, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                NotificationGroupManager.getInstance()
+                        .getNotificationGroup(NOTIFICATION_GROUP)
+                        .createNotification(report.summary().replace(System.lineSeparator(), "<br>"),
+                                NotificationType.INFORMATION)
+                        .notify(project);
+            }
+        });
+    }
+
+    private static GlobalSearchScope createScope(Project project, VirtualFile[] files) {
+        var directories = Arrays.stream(files)
+                .filter(VirtualFile::isDirectory)
+                .toArray(VirtualFile[]::new);
+        var singleFiles = Arrays.stream(files)
+                .filter(file -> !file.isDirectory())
+                .toList();
+        var scope = GlobalSearchScopesCore.directoriesScope(project, true, directories)
+                .union(GlobalSearchScope.filesScope(project, singleFiles));
+        return scope.intersectWith(ProjectScope.getContentScope(project));
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.junkfactory.innerbuilder;
+
+import com.github.junkfactory.innerbuilder.generators.FieldCollector;
+import com.github.junkfactory.innerbuilder.generators.GenerationResult;
+import com.github.junkfactory.innerbuilder.generators.GeneratorFactory;
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Generates builders for every eligible class in a scope. Fields are collected for all classes concurrently in
+ * non-blocking read actions, then builders are written in chunks, one write command per chunk.
+ */
+final class BulkInnerBuilderGenerator {
+
+    private static final Logger LOG = Logger.getInstance(BulkInnerBuilderGenerator.class);
+    private static final String COMMAND_NAME = "Generate Inner Builders";
+    private static final int WRITE_CHUNK_SIZE = 20;
+    private static final GeneratorFactory generatorFactory = GeneratorFactory.create();
+
+    private final Project project;
+    private final Function<String, Set<JavaInnerBuilderOption>> options;
+
+    /**
+     * @param options options by qualified class name, e.g. those of the project with the overrides of its classes
+     */
+    BulkInnerBuilderGenerator(Project project, Function<String, Set<JavaInnerBuilderOption>> options) {
+        this.project = project;
+        this.options = options;
+    }
+
+    Report generate(GlobalSearchScope scope, ProgressIndicator indicator) {
+        var start = System.nanoTime();
+        indicator.setIndeterminate(false);
+        indicator.setText("Finding classes");
+        var classes = ReadAction.nonBlocking(() -> findClasses(scope))
+                .inSmartMode(project)
+                .executeSynchronously();
+
+        indicator.setText("Collecting fields");
+        var models = collectModels(classes, indicator);
+
+        indicator.setText("Generating builders");
+        var timings = writeBuilders(models, indicator);
+        var report = new Report(classes.size(), timings, System.nanoTime() - start);
+        LOG.info(report.summary());
+        return report;
+    }
+
+    private List<SmartPsiElementPointer<PsiClass>> findClasses(GlobalSearchScope scope) {
+        var psiManager = PsiManager.getInstance(project);
+        var pointerManager = SmartPointerManager.getInstance(project);
+        var classes = new ArrayList<SmartPsiElementPointer<PsiClass>>();
+        for (var virtualFile : FileTypeIndex.getFiles(JavaFileType.INSTANCE, scope)) {
+            if (psiManager.findFile(virtualFile) instanceof PsiJavaFile javaFile) {
+                for (var psiClass : javaFile.getClasses()) {
+                    if (isEligible(psiClass)) {
+                        classes.add(pointerManager.createSmartPsiElementPointer(psiClass));
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static boolean isEligible(PsiClass psiClass) {
+        return !psiClass.isInterface() && !psiClass.isEnum() && !psiClass.isAnnotationType() &&
+                !psiClass.hasModifierProperty(PsiModifier.ABSTRACT);
+    }
+
+    private List<ClassModel> collectModels(List<SmartPsiElementPointer<PsiClass>> classes,
+                                           ProgressIndicator indicator) {
+        var models = new ConcurrentLinkedQueue<ClassModel>();
+        var processed = new AtomicInteger();
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(classes, indicator, pointer -> {
+            var model = ReadAction.nonBlocking(() -> collectModel(pointer)).executeSynchronously();
+            if (model != null) {
+                models.add(model);
+            }
+            indicator.setFraction(0.5 * processed.incrementAndGet() / classes.size());
+            return true;
+        });
+        var sortedModels = new ArrayList<>(models);
+        sortedModels.sort(Comparator.comparing(ClassModel::name));
+        return sortedModels;
+    }
+
+    @Nullable
+    private static ClassModel collectModel(SmartPsiElementPointer<PsiClass> pointer) {
+        var psiClass = pointer.getElement();
+        if (psiClass == null) {
+            return null;
+        }
+        var start = System.nanoTime();
+        var fields = FieldCollector.builder()
+                .targetClass(psiClass)
+                .build()
+                .collectFields();
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new ClassModel(pointer, String.valueOf(psiClass.getQualifiedName()), fields,
+                System.nanoTime() - start);
+    }
+
+    private List<ClassTiming> writeBuilders(List<ClassModel> models, ProgressIndicator indicator) {
+        var timings = new ArrayList<ClassTiming>();
+        for (int i = 0; i < models.size(); i += WRITE_CHUNK_SIZE) {
+            indicator.checkCanceled();
+            var chunk = models.subList(i, Math.min(i + WRITE_CHUNK_SIZE, models.size()));
+            ApplicationManager.getApplication().invokeAndWait(() -> {
+                var files = chunk.stream()
+                        .map(model -> model.pointer().getContainingFile())
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toArray(PsiFile[]::new);
+                WriteCommandAction.writeCommandAction(project, files)
+                        .withName(COMMAND_NAME)
+                        .run(() -> chunk.forEach(model -> {
+                            var timing = writeBuilder(model);
+                            if (timing != null) {
+                                timings.add(timing);
+                            }
+                        }));
+            });
+            indicator.setFraction(0.5 + 0.5 * (i + chunk.size()) / models.size());
+        }
+        return timings;
+    }
+
+    @Nullable
+    private ClassTiming writeBuilder(ClassModel model) {
+        var psiClass = model.pointer().getElement();
+        if (psiClass == null || !model.fields().stream().allMatch(member -> member.getElement().isValid())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Skipping " + model.name() + ", it changed after its fields were collected");
+            }
+            return null;
+        }
+        var start = System.nanoTime();
+        var result = generatorFactory.createInnerBuilderGenerator(psiClass, model.fields(),
+                options.apply(model.name())).generate();
+        var timing = new ClassTiming(model.name(), model.collectNanos(), System.nanoTime() - start, result);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(timing.toString());
+        }
+        return timing;
+    }
+
+    private record ClassModel(SmartPsiElementPointer<PsiClass> pointer,
+                              String name,
+                              List<PsiFieldMember> fields,
+                              long collectNanos) {
+    }
+
+    record ClassTiming(String name, long collectNanos, long writeNanos, GenerationResult result) {
+        @NotNull
+        @Override
+        public String toString() {
+            return String.format("%s: collect %d ms, generate %d ms (%s)", name,
+                    TimeUnit.NANOSECONDS.toMillis(collectNanos), TimeUnit.NANOSECONDS.toMillis(writeNanos),
+                    result.summary());
+        }
+    }
+
+    record Report(int classCount, List<ClassTiming> generated, long totalNanos) {
+
+        private static final int SLOWEST_COUNT = 5;
+
+        String summary() {
+            var totalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(totalNanos));
+            var summary = new StringBuilder()
+                    .append(String.format("Generated %d builders out of %d classes in %d ms (%.1f classes/s)",
+                            generated.size(), classCount, totalMillis, generated.size() * 1000.0 / totalMillis));
+            var totals = new GenerationResult();
+            generated.forEach(timing -> totals.merge(timing.result()));
+            summary.append(System.lineSeparator()).append("Totals: ").append(totals.summary());
+            generated.stream()
+                    .sorted(Comparator.comparingLong((ClassTiming timing) ->
+                            timing.collectNanos() + timing.writeNanos()).reversed())
+                    .limit(SLOWEST_COUNT)
+                    .forEach(timing -> summary.append(System.lineSeparator()).append(timing));
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.junkfactory.innerbuilder;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderSettings;
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PackageScope;
+import com.intellij.psi.search.ProjectScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Headless entry point for CI. Usage:
+ * <pre>
+ * idea generateInnerBuilders &lt;project path&gt; [--toBuilder] [--validate] &lt;class or package&gt;...
+ * </pre>
+ * Options are named after the last segment of their property. Without any option flags the options stored for the
+ * project and its classes apply, see {@link JavaInnerBuilderSettings}.
+ */
+public class InnerBuilderApplicationStarter implements ApplicationStarter {
+
+    private static final String OPTION_PREFIX = "--";
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        System.exit(run(args.subList(1, args.size())));
+    }
+
+    private static int run(List<String> args) {
+        if (args.size() < 2) {
+            return usage();
+        }
+
+        var projectPath = Path.of(args.get(0)).toAbsolutePath().normalize();
+        if (!Files.isDirectory(projectPath)) {
+            System.err.println("Project directory not found: " + projectPath);
+            return 1;
+        }
+
+        var options = EnumSet.noneOf(JavaInnerBuilderOption.class);
+        var targets = new ArrayList<String>();
+        for (var arg : args.subList(1, args.size())) {
+            if (!arg.startsWith(OPTION_PREFIX)) {
+                targets.add(arg);
+                continue;
+            }
+            var option = findOption(arg.substring(OPTION_PREFIX.length()));
+            if (option == null) {
+                System.err.println("Unknown option: " + arg + ", expected one of " + Arrays.stream(
+                        JavaInnerBuilderOption.values()).map(it -> OPTION_PREFIX + optionName(it)).toList());
+                return 1;
+            }
+            options.add(option);
+        }
+        if (targets.isEmpty()) {
+            return usage();
+        }
+
+        var project = ProjectUtil.openOrImport(projectPath, null, false);
+        if (project == null) {
+            System.err.println("Unable to open project: " + projectPath);
+            return 1;
+        }
+
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            var scope = ReadAction.compute(() -> createScope(project, targets));
+            if (scope == null) {
+                return 1;
+            }
+            var settings = JavaInnerBuilderSettings.getInstance(project);
+            var generator = new BulkInnerBuilderGenerator(project,
+                    options.isEmpty() ? settings::getOptions : className -> options);
+            var indicator = new EmptyProgressIndicator();
+            var report = ProgressManager.getInstance().runProcess(() -> generator.generate(scope, indicator),
+                    indicator);
+            ApplicationManager.getApplication().invokeAndWait(() ->
+                    FileDocumentManager.getInstance().saveAllDocuments());
+            System.out.println(report.summary());
+            return 0;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(() ->
+                    ProjectManager.getInstance().closeAndDispose(project));
+        }
+    }
+
+    private static int usage() {
+        System.err.println("Usage: generateInnerBuilders <project path> [--option]... <class or package>...");
+        return 1;
+    }
+
+    @Nullable
+    private static JavaInnerBuilderOption findOption(String name) {
+        for (var option : JavaInnerBuilderOption.values()) {
+            if (optionName(option).equals(name)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    private static String optionName(JavaInnerBuilderOption option) {
+        var property = option.getProperty();
+        return property.substring(property.lastIndexOf('.') + 1);
+    }
+
+    @Nullable
+    private static GlobalSearchScope createScope(Project project, List<String> targets) {
+        var psiFacade = JavaPsiFacade.getInstance(project);
+        var contentScope = ProjectScope.getContentScope(project);
+        var scopes = new ArrayList<GlobalSearchScope>();
+        for (var target : targets) {
+            var psiClass = psiFacade.findClass(target, contentScope);
+            if (psiClass != null) {
+                scopes.add(GlobalSearchScope.fileScope(psiClass.getContainingFile()));
+                continue;
+            }
+            var psiPackage = psiFacade.findPackage(target);
+            if (psiPackage == null) {
+                System.err.println("No class or package found for " + target);
+                return null;
+            }
+            scopes.add(PackageScope.packageScope(psiPackage, true));
+        }
+        return GlobalSearchScope.union(scopes.toArray(GlobalSearchScope[]::new)).intersectWith(contentScope);
+    }
+}
@@ -2,31 +2,35 @@ package com.github.junkfactory.innerbuilder;
 
 import com.github.junkfactory.innerbuilder.generators.FieldCollector;
 import com.github.junkfactory.innerbuilder.generators.GeneratorFactory;
-import com.github.junkfactory.innerbuilder.generators.GeneratorParams;
-import com.github.junkfactory.innerbuilder.generators.PsiParams;
 import com.github.junkfactory.innerbuilder.generators.Utils;
-import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
 import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOptionSelector;
-import com.intellij.ide.util.PropertiesComponent;
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderSettings;
+import com.intellij.codeInsight.generation.PsiFieldMember;
 import com.intellij.lang.LanguageCodeInsightActionHandler;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.EditorModificationUtil;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
-import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiJavaFile;
-import com.intellij.psi.PsiManager;
-import com.intellij.psi.codeStyle.JavaCodeStyleManager;
 import com.intellij.util.AstLoadingFilter;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.EnumSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 class JavaInnerBuilderHandler implements LanguageCodeInsightActionHandler {
 
+    private static final Logger LOG = Logger.getInstance(JavaInnerBuilderHandler.class);
+    private static final String COMMAND_NAME = "Generate Inner Builder";
     private static final GeneratorFactory generatorFactory = GeneratorFactory.create();
 
     @Override
@@ -40,7 +44,11 @@ class JavaInnerBuilderHandler implements LanguageCodeInsightActionHandler {
             return false;
         }
 
-        return Utils.getStaticOrTopLevelClass(file, editor) != null && isApplicable(file, editor);
+        var targetClass = Utils.getStaticOrTopLevelClass(file, editor);
+        return targetClass != null && FieldCollector.builder()
+                .targetClass(targetClass)
+                .build()
+                .hasFields();
     }
 
     @Override
@@ -48,14 +56,6 @@ class JavaInnerBuilderHandler implements LanguageCodeInsightActionHandler {
         return false;
     }
 
-    private static boolean isApplicable(final PsiFile file, final Editor editor) {
-        return file instanceof PsiJavaFile && FieldCollector.builder()
-                .file(file)
-                .editor(editor)
-                .build()
-                .hasFields();
-    }
-
     @Override
     public void invoke(@NotNull final Project project, @NotNull final Editor editor, @NotNull final PsiFile file) {
 
@@ -67,66 +67,77 @@ class JavaInnerBuilderHandler implements LanguageCodeInsightActionHandler {
             return;
         }
 
+        var targetClass = Utils.getStaticOrTopLevelClass(file, editor);
+        if (targetClass == null) {
+            return;
+        }
+
         var fieldCollector = FieldCollector.builder()
-                .file(file)
-                .editor(editor)
+                .targetClass(targetClass)
                 .build();
 
-        AstLoadingFilter.disallowTreeLoading(() -> {
-            var existingFields = fieldCollector.collectFields();
-            if (existingFields.isEmpty()) {
-                return;
-            }
+        if (ApplicationManager.getApplication().isUnitTestMode()) {
+            generate(project, targetClass, collectFields(fieldCollector));
+            return;
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Collecting fields for the builder", true) {
+            private List<PsiFieldMember> existingFields = List.of();
 
-            var optionsDialog = JavaInnerBuilderOptionSelector.builder()
-                    .project(project)
-                    .members(existingFields)
-                    .build();
-            var selectedFields = optionsDialog.selectFieldsAndOptions();
-            if (selectedFields.isEmpty()) {
-                return;
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                // restarted whenever a write action interrupts it, cancelled once the editor or file goes away
+                existingFields = ReadAction.nonBlocking(() -> collectFields(fieldCollector))
+                        .expireWhen(() -> editor.isDisposed() || !targetClass.isValid())
+                        .executeSynchronously();
             }
 
-            var psiParams = PsiParams.builder()
-                    .file(file)
-                    .selectedFields(selectedFields)
-                    .factory(JavaPsiFacade.getElementFactory(project))
-                    .codeStyleManager(JavaCodeStyleManager.getInstance(project))
-                    .psiManager(PsiManager.getInstance(project))
-                    .build();
-            var generatorParams = GeneratorParams.builder()
-                    .project(project)
-                    .editor(editor)
-                    .psi(psiParams)
-                    .options(currentOptions())
-                    .build();
-            var builderGenerator = generatorFactory.createInnerBuilderGenerator(generatorParams);
-            ApplicationManager.getApplication().runWriteAction(builderGenerator);
+            @Override
+            public void onSuccess() {
+                if (editor.isDisposed() || !targetClass.isValid()) {
+                    return;
+                }
+                // an edit made after the collection finished leaves stale fields, collected again from the cache
+                var fields = areValid(existingFields) ? existingFields : collectFields(fieldCollector);
+                generate(project, targetClass, fields);
+            }
         });
+    }
+
+    private static List<PsiFieldMember> collectFields(FieldCollector fieldCollector) {
+        var start = System.nanoTime();
+        var fields = AstLoadingFilter.disallowTreeLoading(() -> fieldCollector.collectFields());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Collected %d fields in %d ms", fields.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        }
+        return fields;
+    }
 
+    private static boolean areValid(List<PsiFieldMember> fields) {
+        return fields.stream().allMatch(field -> field.getElement().isValid());
     }
 
-    private Set<JavaInnerBuilderOption> currentOptions() {
-        final var options = EnumSet.noneOf(JavaInnerBuilderOption.class);
-        final var propertiesComponent = PropertiesComponent.getInstance();
-        for (var option : JavaInnerBuilderOption.values()) {
-            switch (option.getType()) {
-                case BOOLEAN:
-                    if (propertiesComponent.getBoolean(option.getProperty(), false)) {
-                        options.add(option);
-                    }
-                    break;
-                case LIST:
-                    var list = propertiesComponent.getList(option.getProperty());
-                    if (null != list && !list.isEmpty()) {
-                        options.add(option);
-                    }
-                    break;
-                default:
-                    String currentValue = String.valueOf(propertiesComponent.getValue(option.getProperty()));
-                    JavaInnerBuilderOption.findValue(currentValue).ifPresent(options::add);
-            }
+    private void generate(Project project, PsiClass targetClass, List<PsiFieldMember> existingFields) {
+        if (existingFields.isEmpty()) {
+            return;
+        }
+
+        var className = targetClass.getQualifiedName();
+        var optionsDialog = JavaInnerBuilderOptionSelector.builder()
+                .project(project)
+                .targetClassName(className)
+                .members(existingFields)
+                .build();
+        var selectedFields = optionsDialog.selectFieldsAndOptions();
+        if (selectedFields.isEmpty() || !targetClass.isValid() || !areValid(selectedFields)) {
+            return;
         }
-        return options;
+
+        var builderGenerator = generatorFactory.createInnerBuilderGenerator(targetClass, selectedFields,
+                JavaInnerBuilderSettings.getInstance(project).getOptions(className));
+        WriteCommandAction.writeCommandAction(project, targetClass.getContainingFile())
+                .withName(COMMAND_NAME)
+                .run(builderGenerator::run);
     }
 }
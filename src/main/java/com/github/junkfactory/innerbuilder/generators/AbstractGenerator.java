@@ -1,9 +1,16 @@
 package com.github.junkfactory.innerbuilder.generators;
 
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.CommonClassNames;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMember;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiPrimitiveType;
 import com.intellij.psi.PsiType;
 import com.intellij.psi.util.PsiUtil;
 import org.jetbrains.annotations.NonNls;
@@ -19,8 +26,16 @@ abstract class AbstractGenerator {
     @NonNls
     static final String BUILDER_METHOD_NAME = "builder";
     @NonNls
+    static final String BATCH_BUILDER_CLASS_NAME = "BatchBuilder";
+    @NonNls
+    static final String BATCH_BUILDER_METHOD_NAME = "batchBuilder";
+    @NonNls
     static final String TO_BUILDER_NAME = "toBuilder";
     @NonNls
+    static final String INSTANCE_NAME = "instance";
+    @NonNls
+    static final String SOURCE_NAME = "toBuilderSource";
+    @NonNls
     static final String EMPTY = "";
     @NonNls
     static final String SPACE = " ";
@@ -39,11 +54,29 @@ abstract class AbstractGenerator {
         this.generationResult = new GenerationResult();
     }
 
+    /**
+     * @return {@code true} if the name is one of the fields the generator adds to builders besides the selected ones
+     */
+    static boolean isSupportFieldName(@Nullable String name) {
+        return name != null && (INSTANCE_NAME.equals(name) || SOURCE_NAME.equals(name) ||
+                name.startsWith(PresenceBitmask.FIELD_NAME) || name.startsWith(PresenceBitmask.WRITTEN_FIELD_NAME));
+    }
+
+    /**
+     * @return {@code true} if the builder accumulates into the field, i.e. it has an initializer in the target or the
+     * builder
+     */
+    static boolean accumulates(PsiField field, @Nullable PsiClass builderClass) {
+        var builderField = builderClass == null ? null : builderClass.findFieldByName(field.getName(), false);
+        return field.hasInitializer() || (builderField != null && builderField.hasInitializer());
+    }
+
     protected PsiElement addElement(PsiElement target, PsiElement element, PsiElement after) {
-        if (after != null) {
-            return target.addAfter(element, after);
-        }
-        return target.add(element);
+        generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+        generationResult.count(GenerationResult.Counter.MEMBERS_ADDED);
+        var addedElement = after != null ? target.addAfter(element, after) : target.add(element);
+        generationResult.changed(addedElement);
+        return addedElement;
     }
 
     protected PsiElement addMethod(@NotNull final PsiClass target, @Nullable final PsiElement after,
@@ -54,16 +87,121 @@ abstract class AbstractGenerator {
         }
         if (existingMethod == null) {
             return addElement(target, newMethod, after);
-        } else if (replace) {
-            existingMethod.replace(newMethod);
+        } else if (replace && !StringUtil.equalsIgnoreWhitespaces(existingMethod.getText(), newMethod.getText())) {
+            generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+            generationResult.count(GenerationResult.Counter.MEMBERS_REPLACED);
+            var replacedMethod = existingMethod.replace(newMethod);
+            generationResult.changed(replacedMethod);
+            return replacedMethod;
         }
         return existingMethod;
     }
 
+    protected void deleteMethods(@NotNull final PsiClass target, @NotNull final String methodName) {
+        for (var method : target.findMethodsByName(methodName, false)) {
+            deleteMember(method);
+        }
+    }
+
+    protected void deleteMember(@NotNull final PsiMember member) {
+        generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+        generationResult.count(GenerationResult.Counter.MEMBERS_DELETED);
+        member.delete();
+    }
+
     protected boolean addImport(PsiType psiType) {
+        if (psiType instanceof PsiPrimitiveType) {
+            return false;
+        }
         var psiClass = Objects.requireNonNull(PsiUtil.resolveClassInType(psiType),
                 "Unable to resolve " + psiType.toString());
-        return generatorParams.psi().codeStyleManager().addImport((PsiJavaFile) generatorParams.psi().file(), psiClass);
+        var added = generationResult.time(GenerationResult.Phase.IMPORTS, () -> generatorParams.psi()
+                .codeStyleManager().addImport((PsiJavaFile) generatorParams.psi().file(), psiClass));
+        if (added) {
+            generationResult.count(GenerationResult.Counter.IMPORTS);
+            generationResult.imported(Objects.requireNonNull(psiClass.getQualifiedName()));
+        }
+        return added;
+    }
+
+    /**
+     * Applies the selected collection finalization to a collection the builder accumulated into. The copies are
+     * sized from the source, so each collection costs exactly one allocation on build. A collection set to
+     * {@code null} is passed as {@code null}, like {@link CollectionSizing#copyText} does. Without a finalization, or
+     * with {@link JavaInnerBuilderOption#SHARE_COLLECTIONS}, the collection is passed as it is: every object a
+     * reused builder builds shares it, and adding to the builder afterwards changes the objects already built. This
+     * is intended, as sharing is what the option promises; {@code reset()} replaces the collections, so objects
+     * built before it are left alone.
+     *
+     * @param field      field holding the collection
+     * @param expression expression of the collection to pass to the built object
+     * @return expression to pass to the built object
+     */
+    protected String finalizeCollection(PsiField field, String expression) {
+        var options = generatorParams.options();
+        if (options.contains(JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS)) {
+            var immutableClassName = findImmutableCopyClassName(field.getType());
+            if (immutableClassName != null) {
+                return expression + " == null ? null : " + importClass(immutableClassName) + ".copyOf(" + expression +
+                        ")";
+            }
+        }
+        if (options.contains(JavaInnerBuilderOption.COPY_COLLECTIONS) ||
+                options.contains(JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS)) {
+            var copyClassName = findCopyClassName(field.getType());
+            if (copyClassName != null) {
+                return expression + " == null ? null : new " + importClass(copyClassName) + "<>(" + expression + ")";
+            }
+        }
+        return expression;
+    }
+
+    /**
+     * @param qualifiedName qualified name of the class to import
+     * @return name to refer to the class by
+     */
+    protected String importClass(String qualifiedName) {
+        var file = generatorParams.psi().file();
+        var type = generatorParams.psi().factory().createTypeByFQClassName(qualifiedName, file.getResolveScope());
+        if (addImport(type)) {
+            generationResult.set(GenerationResult.Code.IMPORTS_ADDED);
+        }
+        return StringUtil.getShortName(qualifiedName);
+    }
+
+    @Nullable
+    private static String findImmutableCopyClassName(PsiType type) {
+        var psiClass = PsiUtil.resolveClassInClassTypeOnly(type);
+        var qualifiedName = psiClass == null ? null : psiClass.getQualifiedName();
+        if (CommonClassNames.JAVA_UTIL_LIST.equals(qualifiedName) ||
+                CommonClassNames.JAVA_UTIL_COLLECTION.equals(qualifiedName)) {
+            return CommonClassNames.JAVA_UTIL_LIST;
+        } else if (CommonClassNames.JAVA_UTIL_SET.equals(qualifiedName) ||
+                CommonClassNames.JAVA_UTIL_MAP.equals(qualifiedName)) {
+            return qualifiedName;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String findCopyClassName(PsiType type) {
+        var psiClass = PsiUtil.resolveClassInClassTypeOnly(type);
+        if (psiClass == null || !CollectionSizing.isCollectionOrMap(psiClass)) {
+            return null;
+        }
+        var qualifiedName = psiClass.getQualifiedName();
+        if (CommonClassNames.JAVA_UTIL_LIST.equals(qualifiedName) ||
+                CommonClassNames.JAVA_UTIL_COLLECTION.equals(qualifiedName)) {
+            return CommonClassNames.JAVA_UTIL_ARRAY_LIST;
+        } else if (CommonClassNames.JAVA_UTIL_SET.equals(qualifiedName)) {
+            return "java.util.LinkedHashSet";
+        } else if (CommonClassNames.JAVA_UTIL_MAP.equals(qualifiedName)) {
+            return "java.util.LinkedHashMap";
+        } else if (!psiClass.isInterface() && !psiClass.hasModifierProperty(PsiModifier.ABSTRACT) &&
+                CollectionSizing.hasCopyConstructor(psiClass)) {
+            return qualifiedName;
+        }
+        return null;
     }
 
     private PsiMethod findConstructor(PsiClass target, PsiMethod newMethod) {
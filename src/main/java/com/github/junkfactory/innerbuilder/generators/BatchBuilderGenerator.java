@@ -0,0 +1,200 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.util.PropertyUtilBase;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a {@code BatchBuilder} next to the builder, creating one object per row from a column of values per
+ * selected field. The row count is checked once per column, and rows are created through the same constructor as
+ * {@code build()} without a builder per row. Columns are named after the fields, so {@code build()} reads them
+ * through {@code this} and its locals cannot hide them.
+ */
+class BatchBuilderGenerator extends AbstractGenerator implements Generator {
+
+    private final BuilderClassParams builderClassParams;
+    private boolean isPublic;
+
+    BatchBuilderGenerator(GeneratorFactory generatorFactory,
+                          GeneratorParams generatorParams,
+                          BuilderClassParams builderClassParams) {
+        super(generatorFactory, generatorParams);
+        this.builderClassParams = builderClassParams;
+    }
+
+    @Override
+    public GenerationResult generate() {
+        var targetClass = builderClassParams.targetClass();
+        var targetModifierList = Objects.requireNonNull(targetClass.getModifierList());
+        isPublic = targetModifierList.hasModifierProperty(PsiModifier.PUBLIC);
+        var builderClass = targetClass.findInnerClassByName(BUILDER_CLASS_NAME, false);
+        var fields = generatorParams.psi().selectedFields().stream()
+                .map(PsiFieldMember::getElement)
+                .toList();
+
+        var psiFactory = generatorParams.psi().factory();
+        var batchBuilderClass = psiFactory.createClassFromText(renderBatchBuilderClass(fields, builderClass),
+                targetClass).getInnerClasses()[0];
+        var existingClass = targetClass.findInnerClassByName(BATCH_BUILDER_CLASS_NAME, false);
+        if (existingClass == null) {
+            addElement(targetClass, batchBuilderClass, builderClass);
+        } else if (!StringUtil.equalsIgnoreWhitespaces(existingClass.getText(), batchBuilderClass.getText())) {
+            generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+            generationResult.count(GenerationResult.Counter.MEMBERS_REPLACED);
+            generationResult.changed(existingClass.replace(batchBuilderClass));
+        }
+        return generationResult;
+    }
+
+    private String renderBatchBuilderClass(List<PsiField> fields, @Nullable PsiClass builderClass) {
+        var classText = new StringBuilder()
+                .append("public static final class ")
+                .append(BATCH_BUILDER_CLASS_NAME)
+                .append(" {");
+        for (var field : fields) {
+            classText.append("private ")
+                    .append(columnTypeText(field))
+                    .append(SPACE)
+                    .append(BuilderMethodsGenerator.parameterName(field))
+                    .append(';');
+        }
+        classText.append("private ")
+                .append(BATCH_BUILDER_CLASS_NAME)
+                .append("() {}");
+        for (var field : fields) {
+            classText.append(renderColumnSetter(field));
+        }
+        classText.append(renderBuildMethod(fields, builderClass))
+                .append(renderBuildListMethod())
+                .append('}');
+        return classText.toString();
+    }
+
+    private String renderColumnSetter(PsiField field) {
+        var columnName = BuilderMethodsGenerator.parameterName(field);
+        return (isPublic ? PsiModifier.PUBLIC + SPACE : EMPTY) +
+                BATCH_BUILDER_CLASS_NAME + SPACE + columnName +
+                "(" + columnTypeText(field) + SPACE + columnName + ") {" +
+                THIS_DOT + columnName + " = " + columnName + ";" +
+                RETURN_THIS +
+                "}";
+    }
+
+    private String renderBuildMethod(List<PsiField> fields, @Nullable PsiClass builderClass) {
+        var targetClass = builderClassParams.targetClass();
+        var targetName = targetClass.getName();
+        var columnNames = fields.stream()
+                .map(BuilderMethodsGenerator::parameterName)
+                .toList();
+        var objectsName = importClass("java.util.Objects");
+        var buildMethod = new StringBuilder()
+                .append(isPublic ? PsiModifier.PUBLIC + SPACE : EMPTY)
+                .append(targetName)
+                .append("[] build() {");
+        //a column that was not set fails with its name
+        for (var columnName : columnNames) {
+            buildMethod.append(objectsName)
+                    .append(".requireNonNull(")
+                    .append(THIS_DOT)
+                    .append(columnName)
+                    .append(", \"")
+                    .append(columnName)
+                    .append("\");");
+        }
+        buildMethod.append("var size = ")
+                .append(THIS_DOT)
+                .append(columnNames.get(0))
+                .append(".length;");
+        if (columnNames.size() > 1) {
+            buildMethod.append("if (")
+                    .append(columnNames.stream()
+                            .skip(1)
+                            .map(columnName -> THIS_DOT + columnName + ".length != size")
+                            .collect(Collectors.joining(" || ")))
+                    .append(") { throw new IllegalArgumentException(\"Columns differ in length\"); }");
+        }
+        buildMethod.append("var built = new ")
+                .append(targetName)
+                .append("[size];");
+        if (builderClassParams.directWrite()) {
+            //rows are created like the instance of a direct-write builder
+            buildMethod.append("for (var i = 0; i < size; i++) {")
+                    .append("var row = new ")
+                    .append(targetName)
+                    .append("();");
+            for (var field : fields) {
+                //written like the direct-write builder does, through the setter if the field is not final
+                var setter = targetClass.findMethodBySignature(PropertyUtilBase.generateSetterPrototype(field), true);
+                var rowValue = rowValueText(field, builderClass);
+                buildMethod.append("row.")
+                        .append(InnerBuilderGenerator.buildAssignText(field, setter, rowValue));
+            }
+            buildMethod.append("built[i] = row;}");
+        } else if (targetClass.isRecord()) {
+            buildMethod.append("for (var i = 0; i < size; i++) {")
+                    .append("built[i] = new ")
+                    .append(targetName)
+                    .append('(')
+                    .append(fields.stream()
+                            .map(field -> rowValueText(field, builderClass))
+                            .collect(Collectors.joining(", ")))
+                    .append(");}");
+        } else {
+            //one builder carries every row into the constructor, which finalizes collections
+            buildMethod.append("var builder = new ")
+                    .append(BUILDER_CLASS_NAME)
+                    .append("();");
+            var presenceBitmask = builderClassParams.presenceBitmask();
+            if (presenceBitmask != null) {
+                //every column sets its field in every row
+                buildMethod.append(presenceBitmask.markAllText("builder"));
+            }
+            buildMethod.append("for (var i = 0; i < size; i++) {");
+            for (var field : fields) {
+                buildMethod.append("builder.")
+                        .append(field.getName())
+                        .append(" = ")
+                        .append(THIS_DOT)
+                        .append(BuilderMethodsGenerator.parameterName(field))
+                        .append("[i];");
+            }
+            buildMethod.append("built[i] = new ")
+                    .append(targetName)
+                    .append("(builder);}");
+        }
+        return buildMethod.append("return built;}").toString();
+    }
+
+    /**
+     * @return array type of the column, holding the values like the builder field, i.e. unboxed if the builder
+     * unboxes the field
+     */
+    private String columnTypeText(PsiField field) {
+        return builderClassParams.builderFieldType(field).createArrayType().getPresentableText();
+    }
+
+    private String renderBuildListMethod() {
+        var targetName = builderClassParams.targetClass().getName();
+        return (isPublic ? PsiModifier.PUBLIC + SPACE : EMPTY) +
+                importClass("java.util.List") + "<" + targetName + "> buildList() {" +
+                "return " + importClass("java.util.Arrays") + ".asList(build());" +
+                "}";
+    }
+
+    /**
+     * @return expression of the field's value in the current row, finalized if it is a collection the builder
+     * accumulates into
+     */
+    private String rowValueText(PsiField field, @Nullable PsiClass builderClass) {
+        var rowValue = THIS_DOT + BuilderMethodsGenerator.parameterName(field) + "[i]";
+        return accumulates(field, builderClass) ? finalizeCollection(field, rowValue) : rowValue;
+    }
+}
@@ -17,19 +17,56 @@ class BuilderClassGenerator extends AbstractGenerator implements Generator {
 
     @Override
     public GenerationResult generate() {
-        //builder constructor
         var builderClass = builderClassParams.builderClass();
+        if (builderClass == null) {
+            return renderBuilderClass();
+        }
+
+        //builder constructor
         var builderConstructor = generateBuilderConstructor();
         addMethod(builderClass, null, builderConstructor, false);
 
         var fieldsGenerator = generatorFactory.createBuilderFieldsGenerator(generatorParams, builderClassParams);
-        fieldsGenerator.generate();
+        generationResult.merge(fieldsGenerator.generate());
 
         var methodsGenerator = generatorFactory.createBuilderMethodsGenerator(generatorParams,
                 builderClassParams, fieldsGenerator);
         return generationResult.merge(methodsGenerator.generate());
     }
 
+    /**
+     * Renders a new builder class to text, parses it once and adds it to the target class in a single
+     * operation. Used when there is no existing builder to update.
+     */
+    private GenerationResult renderBuilderClass() {
+        var targetClass = builderClassParams.targetClass();
+        var fieldsGenerator = generatorFactory.createBuilderFieldsGenerator(generatorParams, builderClassParams);
+        var methodsGenerator = generatorFactory.createBuilderMethodsGenerator(generatorParams,
+                builderClassParams, fieldsGenerator);
+
+        var classText = new StringBuilder()
+                .append("public static final class ")
+                .append(BUILDER_CLASS_NAME)
+                .append(" {");
+        generationResult.merge(fieldsGenerator.render(classText));
+        classText.append("private ")
+                .append(BUILDER_CLASS_NAME)
+                .append("() {}");
+        generationResult.merge(methodsGenerator.render(classText));
+        classText.append('}');
+
+        var psi = generatorParams.psi();
+        var builderClass = psi.factory().createClassFromText(classText.toString(), targetClass)
+                .getInnerClasses()[0];
+        fieldsGenerator.attach(builderClass);
+        methodsGenerator.attach(builderClass);
+        var addedBuilderClass = addElement(targetClass, builderClass, null);
+        //field types are rendered fully qualified
+        generationResult.time(GenerationResult.Phase.SHORTEN_CLASS_REFERENCES,
+                () -> psi.codeStyleManager().shortenClassReferences(addedBuilderClass));
+        return generationResult;
+    }
+
     private PsiMethod generateBuilderConstructor() {
         var builderConstructor = generatorParams.psi().factory().createConstructor(BUILDER_CLASS_NAME);
         PsiUtil.setModifierProperty(builderConstructor, PsiModifier.PRIVATE, true);
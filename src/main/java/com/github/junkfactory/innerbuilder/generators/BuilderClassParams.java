@@ -1,18 +1,50 @@
 package com.github.junkfactory.innerbuilder.generators;
 
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiPrimitiveType;
 import com.intellij.psi.PsiType;
 
-public record BuilderClassParams(PsiClass targetClass, PsiClass builderClass, PsiType builderType) {
+public record BuilderClassParams(PsiClass targetClass,
+                                 PsiClass builderClass,
+                                 PsiType builderType,
+                                 PresenceBitmask presenceBitmask,
+                                 boolean directWrite,
+                                 PresenceBitmask writtenBitmask) {
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * A boxed field without an initializer is held unboxed by a builder with a presence bitmask, whose bit tells
+     * whether it was set, so setting it does not allocate; the target gets {@code null} if it was not set. Builders
+     * writing into the target or reading unwritten fields from a {@code toBuilder()} source keep the field type.
+     *
+     * @param field selected field of the target class
+     * @return {@code true} if the builder holds the field as a primitive although it is boxed in the target
+     */
+    boolean unboxes(PsiField field) {
+        return presenceBitmask != null && !directWrite && writtenBitmask == null &&
+                PsiPrimitiveType.getUnboxedType(field.getType()) != null &&
+                !AbstractGenerator.accumulates(field, builderClass);
+    }
+
+    /**
+     * @param field selected field of the target class, or its builder counterpart
+     * @return type of the builder field, and of the setter parameter, holding the field
+     */
+    PsiType builderFieldType(PsiField field) {
+        return unboxes(field) ? PsiPrimitiveType.getUnboxedType(field.getType()) : field.getType();
+    }
+
     public static final class Builder {
         private PsiClass targetClass;
         private PsiClass builderClass;
         private PsiType builderType;
+        private PresenceBitmask presenceBitmask;
+        private boolean directWrite;
+        private PresenceBitmask writtenBitmask;
 
         private Builder() {
         }
@@ -32,8 +64,27 @@ public record BuilderClassParams(PsiClass targetClass, PsiClass builderClass, Ps
             return this;
         }
 
+        Builder presenceBitmask(PresenceBitmask presenceBitmask) {
+            this.presenceBitmask = presenceBitmask;
+            return this;
+        }
+
+        Builder directWrite(boolean directWrite) {
+            this.directWrite = directWrite;
+            return this;
+        }
+
+        /**
+         * @param writtenBitmask fields written since a copy-on-write {@code toBuilder()}, {@code null} if disabled
+         */
+        Builder writtenBitmask(PresenceBitmask writtenBitmask) {
+            this.writtenBitmask = writtenBitmask;
+            return this;
+        }
+
         public BuilderClassParams build() {
-            return new BuilderClassParams(targetClass, builderClass, builderType);
+            return new BuilderClassParams(targetClass, builderClass, builderType, presenceBitmask, directWrite,
+                    writtenBitmask);
         }
     }
 }
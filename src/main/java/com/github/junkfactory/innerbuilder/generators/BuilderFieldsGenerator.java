@@ -1,18 +1,23 @@
 package com.github.junkfactory.innerbuilder.generators;
 
 import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiField;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 class BuilderFieldsGenerator extends AbstractGenerator implements FieldsGenerator {
 
     private final BuilderClassParams builderClassParams;
-    private final List<PsiField> fields = new LinkedList<>();
+    private final List<PsiField> fields = new ArrayList<>();
+    private final List<PsiField> supportFields = new ArrayList<>();
+    private boolean supportFieldsChanged;
 
     BuilderFieldsGenerator(GeneratorFactory generatorFactory,
                            GeneratorParams generatorParams,
@@ -26,20 +31,115 @@ class BuilderFieldsGenerator extends AbstractGenerator implements FieldsGenerato
         return fields;
     }
 
+    @Override
+    public boolean supportFieldsChanged() {
+        return supportFieldsChanged;
+    }
+
     @Override
     public GenerationResult generate() {
         PsiField lastAddedField = null;
         for (var fieldMember : generatorParams.psi().selectedFields()) {
+            if (builderClassParams.directWrite()) {
+                //a direct-write builder has no fields of its own, it writes to the target fields
+                restoreInitializer(builderClassParams.builderClass(), fieldMember.getElement());
+                fields.add(fieldMember.getElement());
+                continue;
+            }
             lastAddedField = createOrUpdateField(builderClassParams.builderClass(), fieldMember, lastAddedField);
             fields.add(lastAddedField);
         }
+        for (var supportFieldText : supportFieldTexts()) {
+            lastAddedField = createOrUpdateSupportField(builderClassParams.builderClass(), supportFieldText,
+                    lastAddedField);
+            supportFields.add(lastAddedField);
+        }
         cleanupFields(builderClassParams.builderClass());
+        return generationResult;
+    }
+
+    @Override
+    public GenerationResult render(StringBuilder classText) {
+        for (var fieldMember : generatorParams.psi().selectedFields()) {
+            var field = fieldMember.getElement();
+            if (builderClassParams.directWrite()) {
+                fields.add(field);
+                continue;
+            }
+            classText.append("private ")
+                    .append(builderClassParams.builderFieldType(field).getCanonicalText())
+                    .append(SPACE)
+                    .append(field.getName());
+            var initializer = field.getInitializer();
+            if (initializer != null) {
+                classText.append(" = ").append(CollectionSizing.sizedInitializerText(field, initializer));
+            }
+            classText.append(';');
+            //until attached, the target fields stand in for the builder fields
+            fields.add(field);
+        }
+        supportFieldTexts().forEach(classText::append);
         return GenerationResult.NO_RESULT;
     }
 
+    @Override
+    public void attach(PsiClass builderClass) {
+        if (builderClassParams.directWrite()) {
+            return;
+        }
+        //support fields are rendered after the selected ones
+        fields.clear();
+        fields.addAll(Arrays.asList(builderClass.getFields()).subList(0,
+                generatorParams.psi().selectedFields().size()));
+        if (builderClassParams.targetClass().isRecord()) {
+            return;
+        }
+        for (var fieldMember : generatorParams.psi().selectedFields()) {
+            fieldMember.getElement().setInitializer(null);
+        }
+    }
+
+    /**
+     * @return declarations of the fields the builder needs besides the selected ones
+     */
+    private List<String> supportFieldTexts() {
+        var supportFieldTexts = new ArrayList<String>();
+        if (builderClassParams.directWrite()) {
+            var targetName = builderClassParams.targetClass().getName();
+            supportFieldTexts.add("private " + targetName + SPACE + INSTANCE_NAME + " = new " + targetName + "();");
+        }
+        var presenceBitmask = builderClassParams.presenceBitmask();
+        if (presenceBitmask != null) {
+            presenceBitmask.wordNames().stream()
+                    .map(presenceBitmask::fieldText)
+                    .forEach(supportFieldTexts::add);
+        }
+        var writtenBitmask = builderClassParams.writtenBitmask();
+        if (writtenBitmask != null) {
+            supportFieldTexts.add("private " + builderClassParams.targetClass().getName() + SPACE + SOURCE_NAME + ";");
+            writtenBitmask.wordNames().stream()
+                    .map(writtenBitmask::fieldText)
+                    .forEach(supportFieldTexts::add);
+        }
+        return supportFieldTexts;
+    }
+
+    /**
+     * Moves the initializer of a builder field back to its target field, which keeps it with direct writes.
+     */
+    private static void restoreInitializer(PsiClass builderClass, PsiField field) {
+        var builderField = builderClass.findFieldByName(field.getName(), false);
+        if (builderField != null && builderField.hasInitializer() && !field.hasInitializer()) {
+            field.setInitializer(builderField.getInitializer());
+        }
+    }
+
     private void cleanupFields(PsiClass builderClass) {
+        var fieldsToKeep = new HashSet<>(fields);
+        fieldsToKeep.addAll(supportFields);
         for (var field : builderClass.getFields()) {
-            if (!fields.contains(field)) {
+            if (!fieldsToKeep.contains(field)) {
+                supportFieldsChanged |= isSupportFieldName(field.getName());
                 deleteFieldAndMethodIfExists(builderClass, field);
             }
         }
@@ -50,7 +150,7 @@ class BuilderFieldsGenerator extends AbstractGenerator implements FieldsGenerato
         var psiFactory = generatorParams.psi().factory();
         var field = member.getElement();
         var fieldName = field.getName();
-        var fieldType = field.getType();
+        var fieldType = builderClassParams.builderFieldType(field);
         var existingField = builderClass.findFieldByName(fieldName, false);
         if (existingField == null || Utils.areTypesPresentableNotEqual(existingField.getType(), fieldType)) {
             deleteFieldAndMethodIfExists(builderClass, existingField);
@@ -61,6 +161,40 @@ class BuilderFieldsGenerator extends AbstractGenerator implements FieldsGenerato
             }
             existingField = (PsiField) addElement(builderClass, newField, last);
         }
+        sizeInitializer(field, existingField);
+        return existingField;
+    }
+
+    private void sizeInitializer(PsiField field, PsiField builderField) {
+        var initializer = builderField.getInitializer();
+        if (initializer == null) {
+            return;
+        }
+        var sizedInitializerText = CollectionSizing.sizedInitializerText(field, initializer);
+        if (!sizedInitializerText.equals(initializer.getText())) {
+            generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+            generationResult.count(GenerationResult.Counter.MEMBERS_REPLACED);
+            builderField.setInitializer(generatorParams.psi().factory()
+                    .createExpressionFromText(sizedInitializerText, builderField));
+            generationResult.changed(builderField);
+        }
+    }
+
+    private PsiField createOrUpdateSupportField(PsiClass builderClass, String fieldText, @Nullable PsiElement last) {
+        var newField = generatorParams.psi().factory().createFieldFromText(fieldText, builderClass);
+        var existingField = builderClass.findFieldByName(newField.getName(), false);
+        if (existingField == null) {
+            supportFieldsChanged = true;
+            return (PsiField) addElement(builderClass, newField, last);
+        }
+        if (!StringUtil.equalsIgnoreWhitespaces(existingField.getText(), newField.getText())) {
+            supportFieldsChanged = true;
+            generationResult.set(GenerationResult.Code.MEMBERS_CHANGED);
+            generationResult.count(GenerationResult.Counter.MEMBERS_REPLACED);
+            var replacedField = existingField.replace(newField);
+            generationResult.changed(replacedField);
+            return (PsiField) replacedField;
+        }
         return existingField;
     }
 
@@ -70,12 +204,13 @@ class BuilderFieldsGenerator extends AbstractGenerator implements FieldsGenerato
         }
         var methodName = field.getCopyableUserData(UserDataKey.METHOD_REF);
         if (null != methodName) {
-            var builderClassMethods = builderClass.findMethodsByName(methodName, false);
-            for (var method : builderClassMethods) {
-                method.delete();
-            }
+            deleteMethods(builderClass, methodName);
+        }
+        var bulkMethodName = field.getCopyableUserData(UserDataKey.BULK_METHOD_REF);
+        if (null != bulkMethodName) {
+            deleteMethods(builderClass, bulkMethodName);
         }
-        field.delete();
+        deleteMember(field);
     }
 
 }
@@ -2,20 +2,32 @@ package com.github.junkfactory.innerbuilder.generators;
 
 import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.CommonClassNames;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
-import com.intellij.psi.util.PsiUtil;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiReferenceExpression;
+import com.intellij.psi.SyntaxTraverser;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PropertyUtilBase;
+import com.intellij.psi.util.PsiTypesUtil;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenerator {
 
     private final BuilderClassParams builderClassParams;
     private final FieldsGenerator fieldsGenerator;
+    private final List<String> renderedMethodNames = new ArrayList<>();
+    private final List<String> renderedBulkMethodNames = new ArrayList<>();
 
     private boolean isPublic;
 
@@ -32,49 +44,375 @@ class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenera
     public GenerationResult generate() {
         var builderClass = builderClassParams.builderClass();
         var targetClass = builderClassParams.targetClass();
-        var targetModifierList = Objects.requireNonNull(targetClass.getModifierList());
-        isPublic = targetModifierList.hasModifierProperty(PsiModifier.PUBLIC);
+        isPublic = isPublic(targetClass);
+        //methods written for other support fields, e.g. before switching to direct writes, are replaced, as are those
+        //marking a bitmask, whose bits follow the selection order
+        var replaceFieldMethods = fieldsGenerator.supportFieldsChanged() || hasPresenceBitmask() ||
+                builderClassParams.writtenBitmask() != null;
         PsiElement lastAddedElement = null;
-        for (var field : fieldsGenerator.getFields()) {
-            var setterMethod = generateFieldMethod(field);
+        var fields = fieldsGenerator.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            var setterMethod = createMethod(renderFieldMethod(field, i).text(), field);
+            var previousMethodName = field.getCopyableUserData(UserDataKey.METHOD_REF);
+            if (null != previousMethodName && !previousMethodName.equals(setterMethod.getName())) {
+                deleteMethods(builderClass, previousMethodName);
+            }
             field.putCopyableUserData(UserDataKey.METHOD_REF, setterMethod.getName());
-            lastAddedElement = addMethod(builderClass, lastAddedElement, setterMethod, false);
+            lastAddedElement = addMethod(builderClass, lastAddedElement, setterMethod, replaceFieldMethods);
+
+            var bulkMethod = renderBulkFieldMethod(field, i);
+            var bulkMethodName = bulkMethod == null ? null : bulkMethod.name();
+            var previousBulkMethodName = field.getCopyableUserData(UserDataKey.BULK_METHOD_REF);
+            if (null != previousBulkMethodName && !previousBulkMethodName.equals(bulkMethodName)) {
+                deleteMethods(builderClass, previousBulkMethodName);
+            }
+            field.putCopyableUserData(UserDataKey.BULK_METHOD_REF, bulkMethodName);
+            if (null != bulkMethod) {
+                lastAddedElement = addMethod(builderClass, lastAddedElement, createMethod(bulkMethod.text(), field),
+                        replaceFieldMethods);
+            }
+        }
+
+        if (generatorParams.options().contains(JavaInnerBuilderOption.WITH_RESET_METHOD)) {
+            var resetMethod = createMethod(renderResetMethod(), builderClass);
+            lastAddedElement = addMethod(builderClass, lastAddedElement, resetMethod, true);
+        } else {
+            deleteStaleMethod(builderClass, "reset");
         }
 
-        var options = generatorParams.options();
-        if (options.contains(JavaInnerBuilderOption.WITH_VALIDATE_METHOD)) {
-            var validateMethod = generateValidateMethod();
-            addMethod(builderClass, lastAddedElement, validateMethod, false);
+        if (hasValidateMethod()) {
+            var validateMethod = createMethod(renderValidateMethod(), builderClass);
+            //a validate() checking the bitmask is owned by the generator
+            addMethod(builderClass, lastAddedElement, validateMethod, hasPresenceBitmask() || replaceFieldMethods);
+        } else {
+            deleteStaleMethod(builderClass, "validate");
+        }
+
+        if (isDirectWrite()) {
+            var instanceMethod = createMethod(renderInstanceMethod(targetClass), builderClass);
+            addMethod(builderClass, lastAddedElement, instanceMethod, true);
+        } else {
+            deleteStaleMethod(builderClass, INSTANCE_NAME);
         }
 
-        var buildMethod = generateBuildMethod(targetClass);
-        addMethod(builderClass, null, buildMethod, builderClassParams.targetClass().isRecord());
+        var buildMethod = createMethod(renderBuildMethod(targetClass), targetClass);
+        addMethod(builderClass, null, buildMethod, targetClass.isRecord() || hasPresenceBitmask() ||
+                isDirectWrite() || builderClassParams.writtenBitmask() != null || replaceFieldMethods);
         return generationResult;
     }
 
-    private PsiMethod generateValidateMethod() {
-        var psiElementFactory = generatorParams.psi().factory();
-        var voidType = psiElementFactory.createPrimitiveType("void");
-        var validateMethod = psiElementFactory.createMethod("validate", voidType);
-        PsiUtil.setModifierProperty(validateMethod, PsiModifier.PRIVATE, true);
-        return validateMethod;
+    @Override
+    public GenerationResult render(StringBuilder classText) {
+        var targetClass = builderClassParams.targetClass();
+        isPublic = isPublic(targetClass);
+        var fields = fieldsGenerator.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            var fieldMethod = renderFieldMethod(fields.get(i), i);
+            renderedMethodNames.add(fieldMethod.name());
+            classText.append(fieldMethod.text());
+
+            var bulkMethod = renderBulkFieldMethod(fields.get(i), i);
+            renderedBulkMethodNames.add(bulkMethod == null ? null : bulkMethod.name());
+            if (null != bulkMethod) {
+                classText.append(bulkMethod.text());
+            }
+        }
+
+        if (generatorParams.options().contains(JavaInnerBuilderOption.WITH_RESET_METHOD)) {
+            classText.append(renderResetMethod());
+        }
+
+        if (hasValidateMethod()) {
+            classText.append(renderValidateMethod());
+        }
+
+        if (isDirectWrite()) {
+            classText.append(renderInstanceMethod(targetClass));
+        }
+
+        classText.append(renderBuildMethod(targetClass));
+        return generationResult;
+    }
+
+    @Override
+    public void attach(PsiClass builderClass) {
+        var fields = fieldsGenerator.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).putCopyableUserData(UserDataKey.METHOD_REF, renderedMethodNames.get(i));
+            fields.get(i).putCopyableUserData(UserDataKey.BULK_METHOD_REF, renderedBulkMethodNames.get(i));
+        }
+    }
+
+    private static boolean isPublic(PsiClass targetClass) {
+        var targetModifierList = Objects.requireNonNull(targetClass.getModifierList());
+        return targetModifierList.hasModifierProperty(PsiModifier.PUBLIC);
+    }
+
+    private PsiMethod createMethod(String methodText, PsiElement context) {
+        return generatorParams.psi().factory().createMethodFromText(methodText, context);
+    }
+
+    private boolean hasPresenceBitmask() {
+        return builderClassParams.presenceBitmask() != null;
+    }
+
+    private boolean hasValidateMethod() {
+        return hasPresenceBitmask() ||
+                generatorParams.options().contains(JavaInnerBuilderOption.WITH_VALIDATE_METHOD);
+    }
+
+    private String renderValidateMethod() {
+        var presenceBitmask = builderClassParams.presenceBitmask();
+        return "private void validate() {" +
+                (presenceBitmask == null ? EMPTY : presenceBitmask.checkRequiredText()) +
+                "}";
+    }
+
+    /**
+     * Fields are restored to their initializer, or to the default value of their type. Collections get a new
+     * instance rather than being cleared, as objects built earlier share them with the builder.
+     *
+     * @return text of a method restoring the builder to its initial state
+     */
+    private String renderResetMethod() {
+        var resetMethod = new StringBuilder()
+                .append(isPublic ? PsiModifier.PUBLIC : EMPTY)
+                .append(isPublic ? SPACE : EMPTY)
+                .append(BUILDER_CLASS_NAME)
+                .append(" reset() {");
+        if (isDirectWrite()) {
+            //the instance under construction starts over with the initializers of the target class
+            resetMethod.append(INSTANCE_NAME)
+                    .append(" = new ")
+                    .append(builderClassParams.targetClass().getName())
+                    .append("();");
+        } else {
+            for (var field : fieldsGenerator.getFields()) {
+                var initializer = field.getInitializer();
+                resetMethod.append(THIS_DOT)
+                        .append(field.getName())
+                        .append(" = ")
+                        .append(initializer == null ?
+                                PsiTypesUtil.getDefaultValueOfType(builderClassParams.builderFieldType(field)) :
+                                CollectionSizing.sizedInitializerText(field, initializer))
+                        .append(';');
+            }
+        }
+        var presenceBitmask = builderClassParams.presenceBitmask();
+        if (presenceBitmask != null) {
+            resetMethod.append(presenceBitmask.clearText());
+        }
+        var writtenBitmask = builderClassParams.writtenBitmask();
+        if (writtenBitmask != null) {
+            resetMethod.append(SOURCE_NAME).append(" = null;").append(writtenBitmask.clearText());
+        }
+        resetMethod.append(RETURN_THIS).append('}');
+        return resetMethod.toString();
+    }
+
+    /**
+     * @param index index of the field in the selection
+     * @return statements to run whenever the field is written, before returning the builder
+     */
+    private String renderFieldWritten(int index) {
+        var fieldWritten = new StringBuilder();
+        var presenceBitmask = builderClassParams.presenceBitmask();
+        if (presenceBitmask != null) {
+            fieldWritten.append(presenceBitmask.markText(index));
+        }
+        var writtenBitmask = builderClassParams.writtenBitmask();
+        if (writtenBitmask != null) {
+            fieldWritten.append(writtenBitmask.markText(index));
+        }
+        return fieldWritten.toString();
     }
 
-    private PsiMethod generateFieldMethod(PsiField field) {
+    /**
+     * After a copy-on-write {@code toBuilder()}, the first write to a collection copies the source's elements into
+     * the builder.
+     *
+     * @param field builder field holding the collection
+     * @param index index of the field in the selection
+     * @return statements to run before the collection is written to
+     */
+    private String renderCollectionMaterialized(PsiField field, int index) {
+        var writtenBitmask = builderClassParams.writtenBitmask();
+        if (writtenBitmask == null) {
+            return EMPTY;
+        }
+        var sourceField = SOURCE_NAME + "." + field.getName();
+        var copyText = CollectionSizing.copyConstructorText(field.getInitializer(), sourceField);
+        var materialized = new StringBuilder()
+                .append("if (")
+                .append(SOURCE_NAME)
+                .append(" != null && !(")
+                .append(writtenBitmask.isMarkedText(index))
+                .append(") && ")
+                .append(sourceField)
+                .append(" != null) {")
+                .append(THIS_DOT)
+                .append(field.getName());
+        if (copyText != null) {
+            materialized.append(" = ").append(copyText).append(';');
+        } else {
+            var isMap = InheritanceUtil.isInheritor(field.getType(), CommonClassNames.JAVA_UTIL_MAP);
+            materialized.append(isMap ? ".putAll(" : ".addAll(").append(sourceField).append(");");
+        }
+        return materialized.append('}').toString();
+    }
+
+    /**
+     * @return statements taking the fields that were not written since a copy-on-write {@code toBuilder()} from its
+     * source
+     */
+    private String renderSourceResolved() {
+        var writtenBitmask = builderClassParams.writtenBitmask();
+        if (writtenBitmask == null) {
+            return EMPTY;
+        }
+        var resolved = new StringBuilder()
+                .append("if (")
+                .append(SOURCE_NAME)
+                .append(" != null) {");
+        var fields = fieldsGenerator.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            var fieldName = fields.get(i).getName();
+            resolved.append("if (!(")
+                    .append(writtenBitmask.isMarkedText(i))
+                    .append(")) {")
+                    .append(THIS_DOT)
+                    .append(fieldName)
+                    .append(" = ")
+                    .append(SOURCE_NAME)
+                    .append('.')
+                    .append(fieldName)
+                    .append(";}");
+        }
+        return resolved.append('}').toString();
+    }
+
+    private MethodText renderFieldMethod(PsiField field, int index) {
         var addMethod = field.hasInitializer() ? Utils.findAddMethod(field) : null;
         if (null != addMethod) {
-            return generateAddToCollection(field, addMethod);
+            return renderAddToCollection(field, index, addMethod);
         }
 
         var putMethod = field.hasInitializer() ? Utils.findPutMethod(field) : null;
         if (null != putMethod) {
-            return generatePutToMap(field, putMethod);
+            return renderPutToMap(field, index, putMethod);
+        }
+
+        return renderBuilderSetter(field, index);
+    }
+
+    /**
+     * @return bulk counterpart of the add or put method of a collection field, or {@code null} if the field is not a
+     * collection the builder adds to
+     */
+    @Nullable
+    private MethodText renderBulkFieldMethod(PsiField field, int index) {
+        if (!field.hasInitializer()) {
+            return null;
+        }
+
+        var addMethod = Utils.findAddMethod(field);
+        if (null != addMethod && null != Utils.findMethod(field, "addAll", 1)) {
+            return renderAddAllToCollection(field, index, addMethod);
+        }
+
+        var putMethod = Utils.findPutMethod(field);
+        if (null != putMethod && null != Utils.findMethod(field, "putAll", 1)) {
+            return renderPutAllToMap(field, index, putMethod);
+        }
+        return null;
+    }
+
+    @Nullable
+    private MethodText renderPutAllToMap(PsiField field, int index, PsiMethod fieldPutMethod) {
+        //resolve the generic types of the map the same way as for the put method
+        var param1 = Objects.requireNonNull(fieldPutMethod.getParameterList().getParameter(0));
+        var param1Type = Utils.resolveGenericParameterType(field.getType(), param1);
+        var param2 = Objects.requireNonNull(fieldPutMethod.getParameterList().getParameter(1));
+        var param2Type = Utils.resolveGenericParameterType(field.getType(), param2);
+        if (param1Type instanceof PsiPrimitiveType || param2Type instanceof PsiPrimitiveType) {
+            return null;
+        }
+        var importAdded = addImport(param1Type);
+        importAdded = addImport(param2Type) || importAdded;
+        if (importAdded) {
+            generationResult.set(GenerationResult.Code.IMPORTS_ADDED);
         }
 
-        return generateBuilderSetter(field);
+        var methodName = "putAllTo" + StringUtil.capitalize(field.getName());
+        var paramName = parameterName(field);
+        var methodText = new StringBuilder();
+        if (isPublic) {
+            methodText.append(PsiModifier.PUBLIC).append(' ');
+        }
+        methodText.append(BUILDER_CLASS_NAME)
+                .append(' ')
+                .append(methodName)
+                .append('(')
+                .append(importClass(CommonClassNames.JAVA_UTIL_MAP))
+                .append("<? extends ")
+                .append(param1Type.getPresentableText())
+                .append(", ? extends ")
+                .append(param2Type.getPresentableText())
+                .append("> ")
+                .append(paramName)
+                .append(") {")
+                .append(renderCollectionMaterialized(field, index))
+                .append(renderFieldAccess(field))
+                .append(".putAll(")
+                .append(paramName)
+                .append(");")
+                .append(renderFieldWritten(index))
+                .append(RETURN_THIS)
+                .append('}');
+        return new MethodText(methodName, methodText.toString());
+    }
+
+    @Nullable
+    private MethodText renderAddAllToCollection(PsiField field, int index, PsiMethod fieldAddMethod) {
+        //resolve the generic type of the collection the same way as for the add method
+        var param = Objects.requireNonNull(fieldAddMethod.getParameterList().getParameter(0));
+        var paramType = Utils.resolveGenericParameterType(field.getType(), param);
+        if (paramType instanceof PsiPrimitiveType) {
+            return null;
+        }
+        if (addImport(paramType)) {
+            generationResult.set(GenerationResult.Code.IMPORTS_ADDED);
+        }
+
+        var methodName = "addAllTo" + StringUtil.capitalize(field.getName());
+        var paramName = parameterName(field);
+        var methodText = new StringBuilder();
+        if (isPublic) {
+            methodText.append(PsiModifier.PUBLIC).append(' ');
+        }
+        methodText.append(BUILDER_CLASS_NAME)
+                .append(' ')
+                .append(methodName)
+                .append('(')
+                .append(importClass(CommonClassNames.JAVA_UTIL_COLLECTION))
+                .append("<? extends ")
+                .append(paramType.getPresentableText())
+                .append("> ")
+                .append(paramName)
+                .append(") {")
+                .append(renderCollectionMaterialized(field, index))
+                .append(renderFieldAccess(field))
+                .append(".addAll(")
+                .append(paramName)
+                .append(");")
+                .append(renderFieldWritten(index))
+                .append(RETURN_THIS)
+                .append('}');
+        return new MethodText(methodName, methodText.toString());
     }
 
-    private PsiMethod generatePutToMap(PsiField field, PsiMethod fieldPutMethod) {
+    private MethodText renderPutToMap(PsiField field, int index, PsiMethod fieldPutMethod) {
         //resolve the generic type of the map via the parameter type of the put method
         var param1 = Objects.requireNonNull(fieldPutMethod.getParameterList().getParameter(0));
         var param1Type = Utils.resolveGenericParameterType(field.getType(), param1);
@@ -98,26 +436,26 @@ class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenera
                 .append('(')
                 .append(param1Type.getPresentableText())
                 .append(' ')
-                .append(param1.getName().toLowerCase())
+                .append(param1.getName())
                 .append(", ")
                 .append(param2Type.getPresentableText())
                 .append(' ')
-                .append(param2.getName().toLowerCase())
+                .append(param2.getName())
                 .append(") {")
-                .append(THIS_DOT)
-                .append(field.getName())
+                .append(renderCollectionMaterialized(field, index))
+                .append(renderFieldAccess(field))
                 .append(".put(")
-                .append(param1.getName().toLowerCase())
+                .append(param1.getName())
                 .append(", ")
-                .append(param2.getName().toLowerCase())
+                .append(param2.getName())
                 .append(");")
+                .append(renderFieldWritten(index))
                 .append(RETURN_THIS)
                 .append('}');
-        var psiElementFactory = generatorParams.psi().factory();
-        return psiElementFactory.createMethodFromText(methodText.toString(), field);
+        return new MethodText(methodName, methodText.toString());
     }
 
-    private PsiMethod generateAddToCollection(PsiField field, PsiMethod fieldAddMethod) {
+    private MethodText renderAddToCollection(PsiField field, int index, PsiMethod fieldAddMethod) {
         //resolve the generic type of the collection via the parameter type of the add method
         var param = Objects.requireNonNull(fieldAddMethod.getParameterList().getParameter(0));
         var paramType = Utils.resolveGenericParameterType(field.getType(), param);
@@ -136,24 +474,22 @@ class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenera
                 .append('(')
                 .append(paramType.getPresentableText())
                 .append(' ')
-                .append(param.getName().toLowerCase())
+                .append(param.getName())
                 .append(") {")
-                .append(THIS_DOT)
-                .append(field.getName())
+                .append(renderCollectionMaterialized(field, index))
+                .append(renderFieldAccess(field))
                 .append(".add(")
                 .append(param.getName())
                 .append(");")
+                .append(renderFieldWritten(index))
                 .append(RETURN_THIS)
                 .append('}');
-
-        var psiElementFactory = generatorParams.psi().factory();
-        return psiElementFactory.createMethodFromText(methodText.toString(), field);
+        return new MethodText(methodName, methodText.toString());
     }
 
-    private PsiMethod generateBuilderSetter(PsiField field) {
-        var fieldType = field.getType();
-        var fieldName = Utils.hasOneLetterPrefix(field.getName()) ?
-                Character.toLowerCase(field.getName().charAt(1)) + field.getName().substring(2) : field.getName();
+    private MethodText renderBuilderSetter(PsiField field, int index) {
+        var fieldType = builderClassParams.builderFieldType(field);
+        var fieldName = parameterName(field);
 
         var methodText = new StringBuilder();
         if (isPublic) {
@@ -167,30 +503,93 @@ class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenera
                 .append(' ')
                 .append(fieldName)
                 .append(") {")
-                .append(THIS_DOT)
-                .append(field.getName())
-                .append(" = ")
-                .append(fieldName)
-                .append(";")
+                .append(renderAssign(field, fieldName))
+                .append(renderFieldWritten(index))
                 .append(RETURN_THIS)
                 .append('}');
+        return new MethodText(fieldName, methodText.toString());
+    }
 
-        var psiElementFactory = generatorParams.psi().factory();
-        return psiElementFactory.createMethodFromText(methodText.toString(), field);
+    private boolean isDirectWrite() {
+        return builderClassParams.directWrite();
     }
 
-    private PsiMethod generateBuildMethod(PsiClass targetClass) {
+    /**
+     * @return expression of the field the builder writes to, in the builder or in the instance under construction
+     */
+    private String renderFieldAccess(PsiField field) {
+        return (isDirectWrite() ? INSTANCE_NAME + "()." : THIS_DOT) + field.getName();
+    }
+
+    private String renderAssign(PsiField field, String valueText) {
+        if (!isDirectWrite()) {
+            return THIS_DOT + field.getName() + " = " + valueText + ";";
+        }
+        var setter = builderClassParams.targetClass()
+                .findMethodBySignature(PropertyUtilBase.generateSetterPrototype(field), true);
+        return INSTANCE_NAME + "()." + InnerBuilderGenerator.buildAssignText(field, setter, valueText);
+    }
+
+    /**
+     * Deletes a no-arg method left over from support fields that were removed, e.g. the instance accessor of a
+     * builder that no longer writes directly into the target.
+     */
+    private void deleteStaleMethod(PsiClass builderClass, String methodName) {
+        for (var method : builderClass.findMethodsByName(methodName, false)) {
+            var isStale = method.getParameterList().isEmpty() && SyntaxTraverser.psiTraverser(method)
+                    .filter(PsiReferenceExpression.class)
+                    .filter(reference -> isSupportFieldName(reference.getReferenceName()) &&
+                            builderClass.findFieldByName(reference.getReferenceName(), false) == null)
+                    .isNotEmpty();
+            if (isStale) {
+                deleteMember(method);
+            }
+        }
+    }
+
+    /**
+     * @return text of the method guarding the instance under construction against use after {@code build()}
+     */
+    private String renderInstanceMethod(PsiClass targetClass) {
+        return "private " + targetClass.getName() + SPACE + INSTANCE_NAME + "() {" +
+                "if (" + INSTANCE_NAME + " == null) {" +
+                "throw new IllegalStateException(\"build() was already called\");}" +
+                "return " + INSTANCE_NAME + ";}";
+    }
+
+    static String parameterName(PsiField field) {
+        return Utils.hasOneLetterPrefix(field.getName()) ?
+                Character.toLowerCase(field.getName().charAt(1)) + field.getName().substring(2) : field.getName();
+    }
+
+    private String renderBuildMethod(PsiClass targetClass) {
         var buildMethod = new StringBuilder()
                 .append(isPublic ? PsiModifier.PUBLIC : EMPTY)
                 .append(isPublic ? SPACE : EMPTY)
                 .append(targetClass.getName())
-                .append(" build() {");
-        if (generatorParams.options().contains(JavaInnerBuilderOption.WITH_VALIDATE_METHOD)) {
+                .append(" build() {")
+                .append(renderSourceResolved());
+        if (hasValidateMethod()) {
             buildMethod.append("validate();");
         }
-        if (targetClass.isRecord()) {
-            var recordParameters = fieldsGenerator.getFields().stream()
-                    .map(PsiField::getName)
+        if (isDirectWrite()) {
+            buildMethod.append("var built = ")
+                    .append(INSTANCE_NAME)
+                    .append("();")
+                    .append(INSTANCE_NAME)
+                    .append(" = null;");
+            for (var field : fieldsGenerator.getFields()) {
+                var builtField = "built." + field.getName();
+                var finalizedField = field.hasInitializer() ? finalizeCollection(field, builtField) : builtField;
+                if (!finalizedField.equals(builtField)) {
+                    buildMethod.append(builtField).append(" = ").append(finalizedField).append(';');
+                }
+            }
+            buildMethod.append("return built;");
+        } else if (targetClass.isRecord()) {
+            var fields = fieldsGenerator.getFields();
+            var recordParameters = IntStream.range(0, fields.size())
+                    .mapToObj(i -> renderRecordParameter(fields.get(i), i))
                     .collect(Collectors.joining(", "));
             buildMethod.append("return new ")
                     .append(targetClass.getName())
@@ -203,8 +602,25 @@ class BuilderMethodsGenerator extends AbstractGenerator implements MethodsGenera
                     .append("(this);");
         }
         buildMethod.append("}");
+        return buildMethod.toString();
+    }
+
+    /**
+     * @return value passed to the record for the field, {@code null} for an unboxed component that was not set
+     */
+    private String renderRecordParameter(PsiField field, int index) {
+        if (field.hasInitializer()) {
+            return finalizeCollection(field, field.getName());
+        }
+        var presenceBitmask = builderClassParams.presenceBitmask();
+        var targetField = generatorParams.psi().selectedFields().get(index).getElement();
+        if (presenceBitmask == null || presenceBitmask.isRequired(index) || !builderClassParams.unboxes(targetField)) {
+            return field.getName();
+        }
+        return presenceBitmask.isMarkedText(index) + " ? " + field.getName() + " : null";
+    }
 
-        return generatorParams.psi().factory().createMethodFromText(buildMethod.toString(), targetClass);
+    private record MethodText(String name, String text) {
     }
 
 }
@@ -0,0 +1,138 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.codeInsight.AnnotationUtil;
+import com.intellij.psi.CommonClassNames;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiExpression;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiNewExpression;
+import com.intellij.psi.PsiTypes;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiUtil;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sizes the collections a builder accumulates into. The expected size of a field is taken from the
+ * {@code ExpectedSize} annotation shipped with the annotation processor, so an unrelated annotation of the same
+ * name does not change the generated initializers.
+ */
+final class CollectionSizing {
+
+    @NonNls
+    static final String EXPECTED_SIZE_ANNOTATION = "com.github.junkfactory.innerbuilder.processor.ExpectedSize";
+
+    private CollectionSizing() {
+    }
+
+    /**
+     * @param field field of the target class
+     * @return the expected size of the field, or {@code null} if it has no hint
+     */
+    @Nullable
+    static Integer findExpectedSize(PsiField field) {
+        var annotation = field.getAnnotation(EXPECTED_SIZE_ANNOTATION);
+        if (annotation == null) {
+            return null;
+        }
+        var value = AnnotationUtil.getLongAttributeValue(annotation, "value");
+        return value == null || value <= 0 ? null : (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param field       field of the target class
+     * @param initializer initializer of the builder field
+     * @return text of the initializer allocating the expected size of the field, or the initializer text if the
+     * field has no hint or the initializer does not take a capacity
+     */
+    static String sizedInitializerText(PsiField field, PsiExpression initializer) {
+        var expectedSize = findExpectedSize(field);
+        var initializerText = initializer.getText();
+        if (expectedSize == null || !(initializer instanceof PsiNewExpression newExpression) ||
+                newExpression.getAnonymousClass() != null) {
+            return initializerText;
+        }
+        var argumentList = newExpression.getArgumentList();
+        var classReference = newExpression.getClassReference();
+        if (argumentList == null || !argumentList.isEmpty() || classReference == null ||
+                !(classReference.resolve() instanceof PsiClass collectionClass) ||
+                !hasCapacityConstructor(collectionClass)) {
+            return initializerText;
+        }
+        var capacity = isHashed(collectionClass) ?
+                (int) Math.min((long) expectedSize * 4 / 3 + 1, Integer.MAX_VALUE) : expectedSize;
+        var argumentsStart = argumentList.getStartOffsetInParent();
+        return initializerText.substring(0, argumentsStart) + "(" + capacity + ")" +
+                initializerText.substring(argumentsStart + argumentList.getTextLength());
+    }
+
+    /**
+     * @param initializer initializer of the builder field
+     * @param source      expression of the collection to copy
+     * @return expression copying the source into a collection of the initializer's class, sized from the source, or
+     * the source itself if the initializer's class has no copy constructor
+     */
+    static String copyText(@Nullable PsiExpression initializer, String source) {
+        var copyConstructorText = copyConstructorText(initializer, source);
+        return copyConstructorText == null ? source : source + " == null ? null : " + copyConstructorText;
+    }
+
+    /**
+     * @param initializer initializer of the builder field
+     * @param source      expression of the collection to copy, must not be {@code null}
+     * @return expression copying the source into a collection of the initializer's class, sized from the source, or
+     * {@code null} if the initializer's class has no copy constructor
+     */
+    @Nullable
+    static String copyConstructorText(@Nullable PsiExpression initializer, String source) {
+        if (!(initializer instanceof PsiNewExpression newExpression) || newExpression.getAnonymousClass() != null) {
+            return null;
+        }
+        var classReference = newExpression.getClassReference();
+        if (classReference == null || !(classReference.resolve() instanceof PsiClass collectionClass) ||
+                !isCollectionOrMap(collectionClass) || !hasCopyConstructor(collectionClass)) {
+            return null;
+        }
+        var classText = classReference.getText();
+        var typeArgumentsStart = classText.indexOf('<');
+        if (typeArgumentsStart >= 0) {
+            classText = classText.substring(0, typeArgumentsStart);
+        }
+        return "new " + classText + "<>(" + source + ")";
+    }
+
+    private static boolean isHashed(PsiClass collectionClass) {
+        return InheritanceUtil.isInheritor(collectionClass, CommonClassNames.JAVA_UTIL_HASH_MAP) ||
+                InheritanceUtil.isInheritor(collectionClass, CommonClassNames.JAVA_UTIL_HASH_SET);
+    }
+
+    private static boolean hasCapacityConstructor(PsiClass collectionClass) {
+        for (var constructor : collectionClass.getConstructors()) {
+            var parameters = constructor.getParameterList().getParameters();
+            if (parameters.length == 1 && constructor.hasModifierProperty(PsiModifier.PUBLIC) &&
+                    PsiTypes.intType().equals(parameters[0].getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean hasCopyConstructor(PsiClass collectionClass) {
+        for (var constructor : collectionClass.getConstructors()) {
+            var parameters = constructor.getParameterList().getParameters();
+            var parameterClass = parameters.length == 1 ?
+                    PsiUtil.resolveClassInClassTypeOnly(parameters[0].getType()) : null;
+            if (parameterClass != null && constructor.hasModifierProperty(PsiModifier.PUBLIC) &&
+                    isCollectionOrMap(parameterClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isCollectionOrMap(PsiClass psiClass) {
+        return InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_UTIL_COLLECTION) ||
+                InheritanceUtil.isInheritor(psiClass, CommonClassNames.JAVA_UTIL_MAP);
+    }
+}
@@ -1,23 +1,25 @@
 package com.github.junkfactory.innerbuilder.generators;
 
 import com.intellij.codeInsight.generation.PsiFieldMember;
-import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiField;
-import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiModifier;
 import com.intellij.psi.PsiSubstitutor;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.TypeConversionUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.intellij.openapi.util.text.StringUtil.hasLowerCaseChar;
@@ -25,55 +27,57 @@ import static com.intellij.openapi.util.text.StringUtil.hasLowerCaseChar;
 public class FieldCollector {
 
     private static final String OBJECT_CLASS_NAME = "Object";
+    private static final String SETTER_PREFIX = "set";
 
-    private final PsiFile file;
-    private final Editor editor;
+    private final PsiClass targetClass;
 
     private FieldCollector(Builder builder) {
-        file = builder.file;
-        editor = builder.editor;
+        targetClass = builder.targetClass;
     }
 
     public boolean hasFields() {
-        return !collectFields(true).isEmpty();
+        return !collectFields().isEmpty();
     }
 
     @NotNull
     public List<PsiFieldMember> collectFields() {
-        return collectFields(false);
-    }
-
-    @NotNull
-    private List<PsiFieldMember> collectFields(boolean checkOnly) {
-        var offset = editor.getCaretModel().getOffset();
-        var element = file.findElementAt(offset);
-        if (element == null) {
+        if (targetClass == null || targetClass.hasModifierProperty(PsiModifier.ABSTRACT)) {
             return List.of();
         }
 
-        var clazz = PsiTreeUtil.getParentOfType(element, PsiClass.class);
-        if (clazz == null || clazz.hasModifierProperty(PsiModifier.ABSTRACT)) {
-            return List.of();
-        }
+        return collectFields(targetClass);
+    }
 
+    /**
+     * Fields are cached per class until the next PSI modification, so repeated action updates and the
+     * following invocation do not walk the class hierarchy again.
+     *
+     * @param clazz class to collect fields for
+     * @return fields of the class and its super classes
+     */
+    @NotNull
+    private static List<PsiFieldMember> collectFields(PsiClass clazz) {
+        return CachedValuesManager.getCachedValue(clazz, () -> CachedValueProvider.Result.create(
+                doCollectFields(clazz), PsiModificationTracker.getInstance(clazz.getProject())));
+    }
+
+    @NotNull
+    private static List<PsiFieldMember> doCollectFields(PsiClass clazz) {
         var allFields = new ArrayList<PsiFieldMember>();
 
-        var project = Objects.requireNonNull(editor.getProject());
+        var project = clazz.getProject();
         PsiClass classToExtractFieldsFrom = clazz;
         while (classToExtractFieldsFrom != null) {
             var classFieldMembers = collectFieldsInClass(project, clazz, classToExtractFieldsFrom);
-            if (checkOnly) {
-                return classFieldMembers.findAny().stream().toList();
-            }
             allFields.addAll(0, classFieldMembers.toList());
             classToExtractFieldsFrom = classToExtractFieldsFrom.getSuperClass();
         }
 
-        return allFields;
+        return List.copyOf(allFields);
     }
 
-    private Stream<PsiFieldMember> collectFieldsInClass(Project project, PsiClass accessObjectClass,
-                                                        PsiClass classToExtractFieldsFrom) {
+    private static Stream<PsiFieldMember> collectFieldsInClass(Project project, PsiClass accessObjectClass,
+                                                               PsiClass classToExtractFieldsFrom) {
         if (AbstractGenerator.BUILDER_CLASS_NAME.equals(classToExtractFieldsFrom.getName()) ||
                 OBJECT_CLASS_NAME.equals(classToExtractFieldsFrom.getName())) {
             return Stream.empty();
@@ -88,18 +92,31 @@ public class FieldCollector {
                 .map(field -> buildFieldMember(field, field.getContainingClass(), classToExtractFieldsFrom));
     }
 
-    private boolean hasSetter(PsiClass clazz, String name) {
-        for (int i = 0; i < clazz.getAllMethods().length; i++) {
-            if (clazz.getAllMethods()[i].getName().equals(String.format("set%s", StringUtil.capitalize(name)))) {
-                return true;
-            }
-        }
+    private static boolean hasSetter(PsiClass clazz, String name) {
+        return setterNames(clazz).contains(SETTER_PREFIX + StringUtil.capitalize(name));
+    }
 
-        return false;
+    /**
+     * @param clazz class to index
+     * @return names of all setter-like methods of the class, including inherited ones
+     */
+    @NotNull
+    private static Set<String> setterNames(PsiClass clazz) {
+        return CachedValuesManager.getCachedValue(clazz, () -> {
+            var setterNames = new HashSet<String>();
+            for (var method : clazz.getAllMethods()) {
+                var methodName = method.getName();
+                if (methodName.startsWith(SETTER_PREFIX)) {
+                    setterNames.add(methodName);
+                }
+            }
+            return CachedValueProvider.Result.create(Set.copyOf(setterNames),
+                    PsiModificationTracker.getInstance(clazz.getProject()));
+        });
     }
 
-    private PsiFieldMember buildFieldMember(final PsiField field, final PsiClass containingClass,
-                                            final PsiClass clazz) {
+    private static PsiFieldMember buildFieldMember(final PsiField field, final PsiClass containingClass,
+                                                   final PsiClass clazz) {
         return new PsiFieldMember(field,
                 TypeConversionUtil.getSuperClassSubstitutor(containingClass, clazz, PsiSubstitutor.EMPTY));
     }
@@ -109,19 +126,13 @@ public class FieldCollector {
     }
 
     public static final class Builder {
-        private PsiFile file;
-        private Editor editor;
+        private PsiClass targetClass;
 
         private Builder() {
         }
 
-        public Builder file(PsiFile file) {
-            this.file = file;
-            return this;
-        }
-
-        public Builder editor(Editor editor) {
-            this.editor = editor;
+        public Builder targetClass(PsiClass targetClass) {
+            this.targetClass = targetClass;
             return this;
         }
 
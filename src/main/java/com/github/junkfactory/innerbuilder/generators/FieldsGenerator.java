@@ -4,6 +4,12 @@ import com.intellij.psi.PsiField;
 
 import java.util.List;
 
-public interface FieldsGenerator extends Generator {
+public interface FieldsGenerator extends Generator, MemberRenderer {
     List<PsiField> getFields();
+
+    /**
+     * @return {@code true} if fields the generated methods rely on besides the selected ones, e.g. bitmasks, were
+     * added, replaced or removed, so existing methods no longer match them
+     */
+    boolean supportFieldsChanged();
 }
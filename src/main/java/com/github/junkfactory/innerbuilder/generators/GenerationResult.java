@@ -1,6 +1,14 @@
 package com.github.junkfactory.innerbuilder.generators;
 
+import com.intellij.psi.PsiElement;
+
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class GenerationResult {
 
@@ -8,13 +16,42 @@ public class GenerationResult {
 
     public enum Code {
         IMPORTS_ADDED,
-        ANNOTATIONS_ADDED
+        ANNOTATIONS_ADDED,
+        MEMBERS_CHANGED
+    }
+
+    /**
+     * Timed phases of a generation run. Imports are added while generating members, so their time is also part of
+     * {@link #BUILDER_CLASS}.
+     */
+    public enum Phase {
+        BUILDER_CLASS,
+        IMPORTS,
+        SHORTEN_CLASS_REFERENCES,
+        REMOVE_REDUNDANT_IMPORTS,
+        REFORMAT
+    }
+
+    public enum Counter {
+        FIELDS,
+        MEMBERS_ADDED,
+        MEMBERS_REPLACED,
+        MEMBERS_DELETED,
+        IMPORTS
     }
 
     private final BitSet result;
+    private final long[] phaseNanos;
+    private final int[] counters;
+    private final Set<String> importedClassNames;
+    private final List<PsiElement> changedElements;
 
-    GenerationResult() {
+    public GenerationResult() {
         this.result = new BitSet();
+        this.phaseNanos = new long[Phase.values().length];
+        this.counters = new int[Counter.values().length];
+        this.importedClassNames = new HashSet<>();
+        this.changedElements = new ArrayList<>();
     }
 
     void set(Code code) {
@@ -35,8 +72,91 @@ public class GenerationResult {
         }
     }
 
+    void time(Phase phase, Runnable runnable) {
+        time(phase, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    <T> T time(Phase phase, Supplier<T> supplier) {
+        var start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    void count(Counter counter, int amount) {
+        counters[counter.ordinal()] += amount;
+    }
+
+    void count(Counter counter) {
+        count(counter, 1);
+    }
+
+    void imported(String qualifiedName) {
+        importedClassNames.add(qualifiedName);
+    }
+
+    /**
+     * @return qualified names of the classes imported by the run
+     */
+    Set<String> importedClassNames() {
+        return importedClassNames;
+    }
+
+    void changed(PsiElement element) {
+        changedElements.add(element);
+    }
+
+    /**
+     * @return elements created or replaced by the run, some may have been invalidated by later changes
+     */
+    List<PsiElement> changedElements() {
+        return changedElements;
+    }
+
+    public long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int count(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
     public GenerationResult merge(GenerationResult other) {
         result.or(other.result);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] += other.phaseNanos[i];
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        importedClassNames.addAll(other.importedClassNames);
+        changedElements.addAll(other.changedElements);
         return this;
     }
+
+    /**
+     * @return counters and phase durations in milliseconds, e.g. for the debug log
+     */
+    public String summary() {
+        var summary = new StringBuilder();
+        for (var counter : Counter.values()) {
+            summary.append(counter.name().toLowerCase())
+                    .append('=')
+                    .append(count(counter))
+                    .append(", ");
+        }
+        for (var phase : Phase.values()) {
+            summary.append(phase.name().toLowerCase())
+                    .append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(nanos(phase)))
+                    .append("ms, ");
+        }
+        summary.setLength(summary.length() - 2);
+        return summary.toString();
+    }
 }
@@ -1,5 +1,15 @@
 package com.github.junkfactory.innerbuilder.generators;
 
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+
+import java.util.List;
+import java.util.Set;
+
 public interface GeneratorFactory {
 
     static GeneratorFactory create() {
@@ -8,6 +18,34 @@ public interface GeneratorFactory {
 
     Generator createInnerBuilderGenerator(GeneratorParams generatorParams);
 
+    /**
+     * Creates a builder generator for the given class without an editor, e.g. for intentions, bulk or headless runs.
+     *
+     * @param targetClass    class to generate the builder in
+     * @param selectedFields fields to generate the builder for, see {@link FieldCollector}
+     * @param options        generation options
+     * @return generator to run inside a write action
+     */
+    default Generator createInnerBuilderGenerator(PsiClass targetClass,
+                                                  List<PsiFieldMember> selectedFields,
+                                                  Set<JavaInnerBuilderOption> options) {
+        var project = targetClass.getProject();
+        var psiParams = PsiParams.builder()
+                .file(targetClass.getContainingFile())
+                .targetClass(targetClass)
+                .selectedFields(selectedFields)
+                .factory(JavaPsiFacade.getElementFactory(project))
+                .codeStyleManager(JavaCodeStyleManager.getInstance(project))
+                .psiManager(PsiManager.getInstance(project))
+                .build();
+        var generatorParams = GeneratorParams.builder()
+                .project(project)
+                .psi(psiParams)
+                .options(options)
+                .build();
+        return createInnerBuilderGenerator(generatorParams);
+    }
+
     Generator createBuilderClassGenerator(GeneratorParams generatorParams,
                                           BuilderClassParams builderClassParams);
 
@@ -17,4 +55,7 @@ public interface GeneratorFactory {
     MethodsGenerator createBuilderMethodsGenerator(GeneratorParams generatorParams,
                                                    BuilderClassParams builderClassParams,
                                                    FieldsGenerator fieldsGenerator);
+
+    Generator createBatchBuilderGenerator(GeneratorParams generatorParams,
+                                          BuilderClassParams builderClassParams);
 }
@@ -3,11 +3,12 @@ package com.github.junkfactory.innerbuilder.generators;
 import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
 public record GeneratorParams(Project project,
-                              Editor editor,
+                              @Nullable Editor editor,
                               PsiParams psi,
                               Set<JavaInnerBuilderOption> options) {
 
@@ -1,27 +1,51 @@
 package com.github.junkfactory.innerbuilder.generators;
 
+import com.github.junkfactory.innerbuilder.generators.GenerationResult.Counter;
+import com.github.junkfactory.innerbuilder.generators.GenerationResult.Phase;
 import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
 import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiExpression;
 import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
 import com.intellij.psi.PsiJavaFile;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiRecordComponent;
 import com.intellij.psi.PsiType;
+import com.intellij.psi.PsiTypes;
+import com.intellij.psi.SyntaxTraverser;
 import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.util.PropertyUtilBase;
 import com.intellij.psi.util.PsiUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static com.github.junkfactory.innerbuilder.generators.GenerationResult.Code.ANNOTATIONS_ADDED;
 import static com.github.junkfactory.innerbuilder.generators.GenerationResult.Code.IMPORTS_ADDED;
+import static com.github.junkfactory.innerbuilder.generators.GenerationResult.Code.MEMBERS_CHANGED;
 import static com.github.junkfactory.innerbuilder.generators.GenerationResult.NO_RESULT;
 
 class InnerBuilderGenerator extends AbstractGenerator implements Generator {
 
+    private static final Logger LOG = Logger.getInstance(InnerBuilderGenerator.class);
+    private static final String BUILDER_PARAMETER_NAME = "builder";
+    private static final String WITHER_PARAMETER_TYPE = "Void";
+    private static final String WITHER_PARAMETER_NAME = "wither";
+
     InnerBuilderGenerator(GeneratorFactory generatorFactory, GeneratorParams generatorParams) {
         super(generatorFactory, generatorParams);
     }
@@ -29,48 +53,140 @@ class InnerBuilderGenerator extends AbstractGenerator implements Generator {
     @Override
     public GenerationResult generate() {
         var file = generatorParams.psi().file();
-        var targetClass = Utils.getStaticOrTopLevelClass(file, generatorParams.editor());
-        if (targetClass == null || BUILDER_CLASS_NAME.equals(targetClass.getName())) {
+        var targetClass = generatorParams.psi().targetClass();
+        if (targetClass == null || BUILDER_CLASS_NAME.equals(targetClass.getName()) ||
+                BATCH_BUILDER_CLASS_NAME.equals(targetClass.getName())) {
             return NO_RESULT;
         }
         var psiElementFactory = generatorParams.psi().factory();
-        var builderClass = findOrCreateBuilderClass(targetClass);
+        //a missing builder class is rendered from scratch by the builder class generator
+        var builderClass = targetClass.findInnerClassByName(BUILDER_CLASS_NAME, false);
         var builderType = psiElementFactory.createTypeFromText(BUILDER_CLASS_NAME, targetClass);
 
-        if (!targetClass.isRecord()) {
-            var constructor = generateTargetConstructor(targetClass, builderType);
-            addMethod(targetClass, null, constructor, true);
+        var options = generatorParams.options();
+        var selectedFields = generatorParams.psi().selectedFields();
+        var directWrite = options.contains(JavaInnerBuilderOption.WITH_DIRECT_WRITE) &&
+                supportsDirectWrite(targetClass, selectedFields);
+        //cleanup passes only visit the members generated in this run
+        var generatedElements = new ArrayList<PsiElement>();
+        var presenceBitmask = options.contains(JavaInnerBuilderOption.WITH_PRESENCE_BITMASK) ?
+                PresenceBitmask.create(selectedFields, builderClass) : null;
+        var params = BuilderClassParams.builder()
+                .targetClass(targetClass)
+                .builderClass(builderClass)
+                .builderType(builderType)
+                .presenceBitmask(presenceBitmask)
+                .directWrite(directWrite)
+                .writtenBitmask(options.contains(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD) &&
+                        options.contains(JavaInnerBuilderOption.WITH_COPY_ON_WRITE_TO_BUILDER) && !directWrite ?
+                        PresenceBitmask.createWritten(selectedFields) : null)
+                .build();
+
+        if (directWrite) {
+            generatedElements.add(addMethod(targetClass, null, generateDirectWriteConstructor(targetClass), false));
+            deleteTargetConstructor(targetClass);
+        } else if (!targetClass.isRecord()) {
+            var constructor = generateTargetConstructor(targetClass, builderType, params);
+            generatedElements.add(addMethod(targetClass, null, constructor, true));
         }
 
         var newBuilderMethod = generateStaticBuilderMethod(targetClass, builderType);
-        addMethod(targetClass, null, newBuilderMethod, false);
+        generatedElements.add(addMethod(targetClass, null, newBuilderMethod, false));
 
         // toBuilder method
-        var options = generatorParams.options();
         if (options.contains(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD)) {
-            var toBuilderMethod = generateToBuilderMethod(targetClass, builderType,
-                    generatorParams.psi().selectedFields());
-            addMethod(targetClass, null, toBuilderMethod, true);
+            var toBuilderMethod = generateToBuilderMethod(targetClass, builderClass, builderType, selectedFields,
+                    params);
+            generatedElements.add(addMethod(targetClass, null, toBuilderMethod, true));
         }
 
-        var params = BuilderClassParams.builder()
-                .targetClass(targetClass)
-                .builderClass(builderClass)
-                .builderType(builderType)
-                .build();
-        var result = generatorFactory.createBuilderClassGenerator(generatorParams, params).generate();
-        generationResult.merge(result);
-        targetClass.add(builderClass);
+        // wither methods
+        if (options.contains(JavaInnerBuilderOption.WITH_WITHER_METHODS)) {
+            generatedElements.addAll(generateWitherMethods(targetClass, builderClass, selectedFields));
+        }
+
+        var result = generationResult.time(Phase.BUILDER_CLASS,
+                () -> generatorFactory.createBuilderClassGenerator(generatorParams, params).generate());
         var codeStyleManager = generatorParams.psi().codeStyleManager();
-        generationResult.when(ANNOTATIONS_ADDED, () -> codeStyleManager.shortenClassReferences(targetClass));
-        generationResult.when(IMPORTS_ADDED, () -> codeStyleManager.removeRedundantImports((PsiJavaFile) file));
-        CodeStyleManager.getInstance(generatorParams.project()).reformat(builderClass);
+        generationResult.merge(result);
+        generationResult.count(Counter.FIELDS, selectedFields.size());
+        var generatedBuilderClass = Objects.requireNonNull(targetClass.findInnerClassByName(BUILDER_CLASS_NAME, false));
+        generatedElements.add(generatedBuilderClass);
+        //a batch builder without columns has no row count
+        if (options.contains(JavaInnerBuilderOption.WITH_BATCH_BUILDER) && !selectedFields.isEmpty()) {
+            generationResult.merge(generatorFactory.createBatchBuilderGenerator(generatorParams, params).generate());
+            generatedElements.add(targetClass.findInnerClassByName(BATCH_BUILDER_CLASS_NAME, false));
+            generatedElements.add(addMethod(targetClass, null, generateBatchBuilderMethod(targetClass), false));
+        }
+        generatedElements.removeIf(element -> !element.isValid());
+        generationResult.when(ANNOTATIONS_ADDED, () -> generationResult.time(Phase.SHORTEN_CLASS_REFERENCES,
+                () -> generatedElements.forEach(codeStyleManager::shortenClassReferences)));
+        generationResult.when(IMPORTS_ADDED, () -> generationResult.time(Phase.REMOVE_REDUNDANT_IMPORTS,
+                () -> removeUnusedImports((PsiJavaFile) file, generatedElements)));
+        //up-to-date members are left untouched
+        if (generationResult.did(MEMBERS_CHANGED)) {
+            generationResult.time(Phase.REFORMAT, () -> reformatChangedElements(file));
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(targetClass.getQualifiedName() + ": " + generationResult.summary());
+        }
         return generationResult;
     }
 
+    /**
+     * Reformats the members created or replaced in this run in a single pass, so the cost follows the size of the
+     * change rather than the size of the builder.
+     */
+    private void reformatChangedElements(PsiFile file) {
+        var ranges = generationResult.changedElements().stream()
+                .filter(PsiElement::isValid)
+                .map(PsiElement::getTextRange)
+                .sorted(Comparator.comparingInt(TextRange::getStartOffset))
+                .toList();
+        //members of a new builder class are covered by the class itself
+        var mergedRanges = new ArrayList<TextRange>();
+        for (var range : ranges) {
+            var lastIndex = mergedRanges.size() - 1;
+            if (lastIndex >= 0 && mergedRanges.get(lastIndex).getEndOffset() >= range.getStartOffset()) {
+                mergedRanges.set(lastIndex, mergedRanges.get(lastIndex).union(range));
+            } else {
+                mergedRanges.add(range);
+            }
+        }
+        CodeStyleManager.getInstance(generatorParams.project()).reformatText(file, mergedRanges);
+    }
+
+    /**
+     * Deletes the imports added in this run that no generated element refers to, e.g. those of a new method that
+     * did not replace an existing one. Imports already in the file are left alone, so the cost does not depend on
+     * the size of the file.
+     */
+    private void removeUnusedImports(PsiJavaFile file, List<PsiElement> generatedElements) {
+        var importList = file.getImportList();
+        if (importList == null) {
+            return;
+        }
+        for (var qualifiedName : generationResult.importedClassNames()) {
+            var importStatement = importList.findSingleClassImportStatement(qualifiedName);
+            if (importStatement != null && !isReferenced(StringUtil.getShortName(qualifiedName), generatedElements)) {
+                importStatement.delete();
+            }
+        }
+    }
+
+    private static boolean isReferenced(String shortName, List<PsiElement> elements) {
+        return elements.stream().anyMatch(element -> SyntaxTraverser.psiTraverser(element)
+                .filter(PsiJavaCodeReferenceElement.class)
+                .filter(reference -> reference.getQualifier() == null &&
+                        shortName.equals(reference.getReferenceName()))
+                .isNotEmpty());
+    }
+
     private PsiMethod generateToBuilderMethod(PsiClass targetClass,
+                                              @Nullable PsiClass builderClass,
                                               PsiType builderType,
-                                              Collection<PsiFieldMember> fields) {
+                                              List<PsiFieldMember> fields,
+                                              BuilderClassParams params) {
         var targetModifierList = Objects.requireNonNull(targetClass.getModifierList());
         boolean isPublic = targetModifierList.hasModifierProperty(PsiModifier.PUBLIC);
         var toBuilderMethod = new StringBuilder()
@@ -83,21 +199,195 @@ class InnerBuilderGenerator extends AbstractGenerator implements Generator {
                 .append("var builder = new ")
                 .append(builderType.getPresentableText())
                 .append("();");
-        for (var member : fields) {
-            var field = member.getElement();
-            toBuilderMethod
-                    .append("builder.")
-                    .append(field.getName())
-                    .append(" = ")
-                    .append(field.getName())
-                    .append(';')
-                    .append(System.lineSeparator());
+        //a direct-write builder copies into its instance under construction
+        var builderAccess = params.directWrite() ? "builder." + INSTANCE_NAME + "." : "builder.";
+        //a copy-on-write builder reads unwritten fields from this object when built
+        var copyOnWrite = params.writtenBitmask() != null;
+        if (copyOnWrite) {
+            toBuilderMethod.append("builder.").append(SOURCE_NAME).append(" = this;");
+        }
+        var presenceBitmask = params.presenceBitmask();
+        if (presenceBitmask != null) {
+            toBuilderMethod.append(presenceBitmask.markAllText("builder"));
+        }
+        for (int i = 0; i < (copyOnWrite ? 0 : fields.size()); i++) {
+            var field = fields.get(i).getElement();
+            var assignText = builderAccess + field.getName() + " = " +
+                    CollectionSizing.copyText(findBuilderInitializer(field, builderClass), field.getName()) + ';';
+            if (params.unboxes(field)) {
+                //a null value stays unset rather than being unboxed
+                toBuilderMethod.append("if (")
+                        .append(field.getName())
+                        .append(" != null) {")
+                        .append(assignText)
+                        .append("} else {")
+                        .append(presenceBitmask.unmarkText("builder", i))
+                        .append('}');
+            } else {
+                toBuilderMethod.append(assignText);
+            }
+            toBuilderMethod.append(System.lineSeparator());
         }
         toBuilderMethod.append(" return builder; }");
         var psiElementFactory = generatorParams.psi().factory();
         return psiElementFactory.createMethodFromText(toBuilderMethod.toString(), targetClass);
     }
 
+    /**
+     * Generates a {@code withX()} method per selected field, creating the changed copy without a builder. Records are
+     * created with their canonical constructor, classes with a package-private constructor taking the selected fields,
+     * so like {@code toBuilder().x(x).build()} the copy only carries over the selected fields.
+     */
+    private List<PsiElement> generateWitherMethods(PsiClass targetClass,
+                                                   @Nullable PsiClass builderClass,
+                                                   List<PsiFieldMember> fields) {
+        var witherMethods = new ArrayList<PsiElement>();
+        var distinguished = false;
+        List<String> argumentNames;
+        if (targetClass.isRecord()) {
+            argumentNames = Arrays.stream(targetClass.getRecordComponents())
+                    .map(PsiRecordComponent::getName)
+                    .toList();
+        } else {
+            argumentNames = fields.stream()
+                    .map(member -> member.getElement().getName())
+                    .toList();
+            var constructor = generateWitherConstructor(targetClass, fields, false);
+            distinguished = isDeclaredOtherwise(targetClass, constructor);
+            if (distinguished) {
+                constructor = generateWitherConstructor(targetClass, fields, true);
+            } else {
+                deleteDistinguishedWitherConstructors(targetClass);
+            }
+            witherMethods.add(addMethod(targetClass, null, constructor, true));
+        }
+        var targetModifierList = Objects.requireNonNull(targetClass.getModifierList());
+        var isPublic = targetModifierList.hasModifierProperty(PsiModifier.PUBLIC);
+        for (var member : fields) {
+            var field = member.getElement();
+            var fieldName = field.getName();
+            var valueText = accumulates(field, builderClass) ? finalizeCollection(field, fieldName) : fieldName;
+            var witherMethod = new StringBuilder()
+                    .append(isPublic ? PsiModifier.PUBLIC : EMPTY)
+                    .append(isPublic ? SPACE : EMPTY)
+                    .append(targetClass.getName())
+                    .append(" with")
+                    .append(StringUtil.capitalize(fieldName))
+                    .append('(')
+                    .append(field.getType().getPresentableText())
+                    .append(SPACE)
+                    .append(fieldName)
+                    .append(") {")
+                    .append("if (")
+                    .append(identicalText(field))
+                    .append(") { return this; }")
+                    .append("return new ")
+                    .append(targetClass.getName())
+                    .append('(')
+                    .append(argumentNames.stream()
+                            .map(name -> name.equals(fieldName) ? valueText : THIS_DOT + name)
+                            .collect(Collectors.joining(", ")))
+                    .append(distinguished ? ", (Void) null" : EMPTY)
+                    .append("); }");
+            var psiElementFactory = generatorParams.psi().factory();
+            var method = psiElementFactory.createMethodFromText(witherMethod.toString(), targetClass);
+            witherMethods.add(addMethod(targetClass, null, method, true));
+        }
+        return witherMethods;
+    }
+
+    /**
+     * @return condition that is true if the parameter holds the same value as the field; floating point values are
+     * compared by their bits, so {@code -0.0} and {@code NaN} are told apart like {@code equals()} does
+     */
+    private static String identicalText(PsiField field) {
+        var fieldName = field.getName();
+        var fieldType = field.getType();
+        if (PsiTypes.doubleType().equals(fieldType)) {
+            return "Double.doubleToRawLongBits(this." + fieldName + ") == Double.doubleToRawLongBits(" +
+                    fieldName + ")";
+        }
+        if (PsiTypes.floatType().equals(fieldType)) {
+            return "Float.floatToRawIntBits(this." + fieldName + ") == Float.floatToRawIntBits(" + fieldName + ")";
+        }
+        return THIS_DOT + fieldName + " == " + fieldName;
+    }
+
+    /**
+     * A constructor the class declares with the field types, which may assign them differently, is kept apart by a
+     * trailing {@code Void} parameter.
+     *
+     * @return package-private constructor assigning the selected fields, used by the withers of a class, or a private
+     * one taking the trailing parameter if {@code distinguished}
+     */
+    private PsiMethod generateWitherConstructor(PsiClass targetClass, List<PsiFieldMember> fields,
+                                                boolean distinguished) {
+        var constructor = new StringBuilder()
+                .append(distinguished ? PsiModifier.PRIVATE + SPACE : EMPTY)
+                .append(targetClass.getName())
+                .append('(')
+                .append(fields.stream()
+                        .map(PsiFieldMember::getElement)
+                        .map(field -> field.getType().getPresentableText() + SPACE + field.getName())
+                        .collect(Collectors.joining(", ")))
+                .append(distinguished ? ", " + WITHER_PARAMETER_TYPE + SPACE + WITHER_PARAMETER_NAME : EMPTY)
+                .append(") {");
+        for (var member : fields) {
+            var fieldName = member.getElement().getName();
+            constructor.append(THIS_DOT).append(fieldName).append(" = ").append(fieldName).append(';');
+        }
+        constructor.append('}');
+        return generatorParams.psi().factory().createMethodFromText(constructor.toString(), targetClass);
+    }
+
+    /**
+     * @return {@code true} if the class declares a constructor with the same parameter types that does something
+     * else than assigning the fields
+     */
+    private static boolean isDeclaredOtherwise(PsiClass targetClass, PsiMethod constructor) {
+        var existingConstructor = targetClass.findMethodBySignature(constructor, false);
+        if (existingConstructor == null) {
+            return false;
+        }
+        var existingBody = existingConstructor.getBody();
+        return existingBody == null || !StringUtil.equalsIgnoreWhitespaces(existingBody.getText(),
+                Objects.requireNonNull(constructor.getBody()).getText());
+    }
+
+    /**
+     * Deletes the constructor taking the trailing {@code Void} parameter, left over from a class that declared a
+     * constructor with the same field types.
+     */
+    private void deleteDistinguishedWitherConstructors(PsiClass targetClass) {
+        for (var constructor : targetClass.getConstructors()) {
+            var parameters = constructor.getParameterList().getParameters();
+            if (parameters.length > 0) {
+                var lastParameter = parameters[parameters.length - 1];
+                if (WITHER_PARAMETER_NAME.equals(lastParameter.getName()) &&
+                        WITHER_PARAMETER_TYPE.equals(lastParameter.getType().getPresentableText())) {
+                    deleteMember(constructor);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return initializer of the builder counterpart of the field, or of the field itself until it is moved to the
+     * builder
+     */
+    @Nullable
+    private static PsiExpression findBuilderInitializer(PsiField field, @Nullable PsiClass builderClass) {
+        var builderField = builderClass == null ? null : builderClass.findFieldByName(field.getName(), false);
+        return builderField != null && builderField.hasInitializer() ?
+                builderField.getInitializer() : field.getInitializer();
+    }
+
+    private PsiMethod generateBatchBuilderMethod(PsiClass targetClass) {
+        return generatorParams.psi().factory().createMethodFromText("public static " + BATCH_BUILDER_CLASS_NAME +
+                SPACE + BATCH_BUILDER_METHOD_NAME + "() { return new " + BATCH_BUILDER_CLASS_NAME + "(); }",
+                targetClass);
+    }
+
     private PsiMethod generateStaticBuilderMethod(PsiClass targetClass, PsiType builderType) {
         var psiElementFactory = generatorParams.psi().factory();
         var newBuilderMethod = psiElementFactory.createMethod(BUILDER_METHOD_NAME, builderType);
@@ -115,26 +405,82 @@ class InnerBuilderGenerator extends AbstractGenerator implements Generator {
         return existingMethod;
     }
 
-    private PsiMethod generateTargetConstructor(final PsiClass targetClass, final PsiType builderType) {
+    /**
+     * A builder can write directly into the target only if it can create it up front and every selected field is
+     * writable after construction.
+     */
+    private static boolean supportsDirectWrite(PsiClass targetClass, Collection<PsiFieldMember> fields) {
+        return !targetClass.isRecord() && fields.stream()
+                .noneMatch(member -> member.getElement().hasModifierProperty(PsiModifier.FINAL));
+    }
+
+    private PsiMethod generateDirectWriteConstructor(PsiClass targetClass) {
+        var targetName = Objects.requireNonNull(targetClass.getName());
+        var constructor = generatorParams.psi().factory().createConstructor(targetName);
+        PsiUtil.setModifierProperty(constructor, PsiModifier.PRIVATE, true);
+        return constructor;
+    }
+
+    /**
+     * Deletes the constructor taking the builder, left over from before the builder wrote directly into the target.
+     */
+    private void deleteTargetConstructor(PsiClass targetClass) {
+        for (var constructor : targetClass.getConstructors()) {
+            var parameters = constructor.getParameterList().getParameters();
+            if (parameters.length == 1 && BUILDER_CLASS_NAME.equals(parameters[0].getType().getPresentableText())) {
+                deleteMember(constructor);
+            }
+        }
+    }
+
+    private PsiMethod generateTargetConstructor(final PsiClass targetClass,
+                                                final PsiType builderType,
+                                                final BuilderClassParams params) {
         var constructor = new StringBuilder()
                 .append("private ")
                 .append(targetClass.getName())
                 .append("(")
                 .append(builderType.getPresentableText())
-                .append(" builder) {");
+                .append(SPACE)
+                .append(BUILDER_PARAMETER_NAME)
+                .append(") {");
 
-        for (var member : generatorParams.psi().selectedFields()) {
-            var field = member.getElement();
+        var selectedFields = generatorParams.psi().selectedFields();
+        for (int i = 0; i < selectedFields.size(); i++) {
+            var field = selectedFields.get(i).getElement();
             var setterPrototype = PropertyUtilBase.generateSetterPrototype(field);
             var setter = targetClass.findMethodBySignature(setterPrototype, true);
-            var assignText = buildAssignText(field, setter);
+            var assignText = buildAssignText(field, setter, builderValueText(field, i, params));
+            //a field named like the parameter is hidden by it
+            if (BUILDER_PARAMETER_NAME.equals(field.getName()) &&
+                    assignText.startsWith(BUILDER_PARAMETER_NAME + " =")) {
+                assignText = THIS_DOT + assignText;
+            }
             constructor.append(assignText).append(System.lineSeparator());
         }
         constructor.append("}");
         return generatorParams.psi().factory().createMethodFromText(constructor.toString(), targetClass);
     }
 
-    private static @NotNull String buildAssignText(PsiField field, PsiMethod setter) {
+    /**
+     * @return expression reading the field from the builder; collections the builder accumulated into, i.e. that
+     * have an initializer in the target or the builder, are finalized, and unboxed fields that were not set are
+     * {@code null}
+     */
+    private String builderValueText(PsiField field, int index, BuilderClassParams params) {
+        var builderValue = "builder." + field.getName();
+        if (accumulates(field, params.builderClass())) {
+            return finalizeCollection(field, builderValue);
+        }
+        var presenceBitmask = params.presenceBitmask();
+        if (presenceBitmask != null && !presenceBitmask.isRequired(index) && params.unboxes(field)) {
+            return presenceBitmask.isMarkedText("builder", index) + " ? " + builderValue + " : null";
+        }
+        return builderValue;
+    }
+
+
+    static @NotNull String buildAssignText(PsiField field, @Nullable PsiMethod setter, String valueText) {
         var fieldName = field.getName();
         boolean isFinal = false;
         var modifierList = field.getModifierList();
@@ -144,31 +490,11 @@ class InnerBuilderGenerator extends AbstractGenerator implements Generator {
 
         final String assignText;
         if (setter == null || isFinal) {
-            assignText = String.format("%1$s = builder.%1$s;", fieldName);
+            assignText = String.format("%s = %s;", fieldName, valueText);
         } else {
-            assignText = String.format("%s(builder.%s);", setter.getName(), fieldName);
+            assignText = String.format("%s(%s);", setter.getName(), valueText);
         }
         return assignText;
     }
 
-    @NotNull
-    private PsiClass findOrCreateBuilderClass(final PsiClass targetClass) {
-        var builderClass = targetClass.findInnerClassByName(BUILDER_CLASS_NAME, false);
-        if (builderClass == null) {
-            return createBuilderClass(targetClass);
-        }
-
-        return builderClass;
-    }
-
-    @NotNull
-    private PsiClass createBuilderClass(final PsiClass targetClass) {
-        String classDef = "public static final class " +
-                BUILDER_CLASS_NAME +
-                " {}" +
-                System.lineSeparator();
-        return generatorParams.psi().factory().createClassFromText(classDef, targetClass)
-                .getInnerClasses()[0];
-    }
-
 }
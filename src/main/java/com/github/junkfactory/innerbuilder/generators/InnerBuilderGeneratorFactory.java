@@ -24,4 +24,10 @@ class InnerBuilderGeneratorFactory implements GeneratorFactory {
                                                           FieldsGenerator fieldsGenerator) {
         return new BuilderMethodsGenerator(this, generatorParams, builderClassParams, fieldsGenerator);
     }
+
+    @Override
+    public Generator createBatchBuilderGenerator(GeneratorParams generatorParams,
+                                                 BuilderClassParams builderClassParams) {
+        return new BatchBuilderGenerator(this, generatorParams, builderClassParams);
+    }
 }
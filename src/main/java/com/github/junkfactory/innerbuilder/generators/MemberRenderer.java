@@ -0,0 +1,13 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.psi.PsiClass;
+
+/**
+ * Renders builder members as text so a new builder class can be parsed in a single pass.
+ */
+public interface MemberRenderer {
+
+    GenerationResult render(StringBuilder classText);
+
+    void attach(PsiClass builderClass);
+}
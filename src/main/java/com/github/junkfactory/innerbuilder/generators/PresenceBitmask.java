@@ -0,0 +1,215 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiModifier;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Layout of a builder bitmask with one bit per selected field, in selection order, e.g. of the fields that were set.
+ * Up to 32 fields are packed into a single {@code int}, more fields into as many {@code long} words as needed.
+ */
+final class PresenceBitmask {
+
+    @NonNls
+    static final String FIELD_NAME = "setFields";
+    @NonNls
+    static final String WRITTEN_FIELD_NAME = "writtenFields";
+
+    private final String fieldName;
+    private final List<String> fieldNames;
+    private final BitSet required;
+    private final boolean isLong;
+    private final int wordCount;
+
+    private PresenceBitmask(String fieldName, List<String> fieldNames, BitSet required) {
+        this.fieldName = fieldName;
+        this.fieldNames = fieldNames;
+        this.required = required;
+        this.isLong = fieldNames.size() > Integer.SIZE;
+        this.wordCount = isLong ? (fieldNames.size() + Long.SIZE - 1) / Long.SIZE : 1;
+    }
+
+    /**
+     * A field is required when it is final in the target class and neither it nor its builder counterpart has an
+     * initializer, which makes every record component required.
+     *
+     * @param selectedFields fields selected for the builder
+     * @param builderClass   existing builder class, if any
+     * @return bitmask layout for the selected fields
+     */
+    static PresenceBitmask create(List<PsiFieldMember> selectedFields, @Nullable PsiClass builderClass) {
+        var fieldNames = new ArrayList<String>(selectedFields.size());
+        var required = new BitSet(selectedFields.size());
+        for (int i = 0; i < selectedFields.size(); i++) {
+            var field = selectedFields.get(i).getElement();
+            fieldNames.add(field.getName());
+            var builderField = builderClass == null ? null : builderClass.findFieldByName(field.getName(), false);
+            if (field.hasModifierProperty(PsiModifier.FINAL) && !field.hasInitializer() &&
+                    (builderField == null || !builderField.hasInitializer())) {
+                required.set(i);
+            }
+        }
+        return new PresenceBitmask(FIELD_NAME, fieldNames, required);
+    }
+
+    /**
+     * @param selectedFields fields selected for the builder
+     * @return bitmask layout tracking which fields were written since {@code toBuilder()}, no field is required
+     */
+    static PresenceBitmask createWritten(List<PsiFieldMember> selectedFields) {
+        var fieldNames = selectedFields.stream()
+                .map(member -> member.getElement().getName())
+                .toList();
+        return new PresenceBitmask(WRITTEN_FIELD_NAME, fieldNames, new BitSet());
+    }
+
+    List<String> wordNames() {
+        var wordNames = new ArrayList<String>(wordCount);
+        for (int word = 0; word < wordCount; word++) {
+            wordNames.add(wordName(word));
+        }
+        return wordNames;
+    }
+
+    String fieldText(String wordName) {
+        return "private " + (isLong ? "long " : "int ") + wordName + ";";
+    }
+
+    /**
+     * @param index index of the field in the selection
+     * @return statement marking the field as set
+     */
+    String markText(int index) {
+        return wordName(wordOf(index)) + " |= " + literal(1L << bitOf(index)) + ";";
+    }
+
+    /**
+     * @param index index of the field in the selection
+     * @return condition that is true if the field is marked
+     */
+    String isMarkedText(int index) {
+        return "(" + wordName(wordOf(index)) + " & " + literal(1L << bitOf(index)) + ") != 0";
+    }
+
+    /**
+     * @param target expression of the builder to read
+     * @param index  index of the field in the selection
+     * @return condition that is true if the field is marked in the given builder
+     */
+    String isMarkedText(String target, int index) {
+        return "(" + target + "." + wordName(wordOf(index)) + " & " + literal(1L << bitOf(index)) + ") != 0";
+    }
+
+    /**
+     * @param target expression of the builder to update
+     * @param index  index of the field in the selection
+     * @return statement marking the field of the given builder as unset
+     */
+    String unmarkText(String target, int index) {
+        return target + "." + wordName(wordOf(index)) + " &= ~" + literal(1L << bitOf(index)) + ";";
+    }
+
+    /**
+     * @param index index of the field in the selection
+     * @return {@code true} if {@code validate()} fails unless the field was set
+     */
+    boolean isRequired(int index) {
+        return required.get(index);
+    }
+
+    /**
+     * @param target expression of the builder to update
+     * @return statements marking all fields of the given builder as set
+     */
+    String markAllText(String target) {
+        var all = new BitSet(fieldNames.size());
+        all.set(0, fieldNames.size());
+        var markAll = new StringBuilder();
+        for (int word = 0; word < wordCount; word++) {
+            markAll.append(target)
+                    .append('.')
+                    .append(wordName(word))
+                    .append(" = ")
+                    .append(literal(wordMask(all, word)))
+                    .append(';');
+        }
+        return markAll.toString();
+    }
+
+    /**
+     * @return statements marking all fields as unset
+     */
+    String clearText() {
+        var clear = new StringBuilder();
+        for (int word = 0; word < wordCount; word++) {
+            clear.append(wordName(word)).append(" = 0;");
+        }
+        return clear.toString();
+    }
+
+    /**
+     * @return statements failing with the names of all required fields that were not set, or an empty string if no
+     * field is required
+     */
+    String checkRequiredText() {
+        if (required.isEmpty()) {
+            return AbstractGenerator.EMPTY;
+        }
+        var conditions = new ArrayList<String>();
+        for (int word = 0; word < wordCount; word++) {
+            var requiredMask = wordMask(required, word);
+            if (requiredMask != 0) {
+                var mask = literal(requiredMask);
+                conditions.add("(" + wordName(word) + " & " + mask + ") != " + mask);
+            }
+        }
+        var check = new StringBuilder()
+                .append("if (")
+                .append(String.join(" || ", conditions))
+                .append(") {")
+                .append("var missing = new StringBuilder();");
+        required.stream().forEach(index -> check.append("if ((")
+                .append(wordName(wordOf(index)))
+                .append(" & ")
+                .append(literal(1L << bitOf(index)))
+                .append(") == 0) {")
+                .append("missing.append(\" ")
+                .append(fieldNames.get(index))
+                .append("\");}"));
+        check.append("throw new IllegalStateException(\"Required fields not set:\" + missing);}");
+        return check.toString();
+    }
+
+    private String wordName(int word) {
+        return wordCount == 1 ? fieldName : fieldName + word;
+    }
+
+    private int wordOf(int index) {
+        return isLong ? index / Long.SIZE : 0;
+    }
+
+    private int bitOf(int index) {
+        return isLong ? index % Long.SIZE : index;
+    }
+
+    private long wordMask(BitSet bits, int word) {
+        var wordBits = isLong ? Long.SIZE : Integer.SIZE;
+        var mask = 0L;
+        for (int bit = 0; bit < wordBits; bit++) {
+            if (bits.get(word * wordBits + bit)) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    private String literal(long mask) {
+        return isLong ? "0x" + Long.toHexString(mask) + "L" : "0x" + Integer.toHexString((int) mask);
+    }
+}
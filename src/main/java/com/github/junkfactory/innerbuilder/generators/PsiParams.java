@@ -1,6 +1,7 @@
 package com.github.junkfactory.innerbuilder.generators;
 
 import com.intellij.codeInsight.generation.PsiFieldMember;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElementFactory;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
@@ -9,6 +10,7 @@ import com.intellij.psi.codeStyle.JavaCodeStyleManager;
 import java.util.List;
 
 public record PsiParams(PsiFile file,
+                        PsiClass targetClass,
                         List<PsiFieldMember> selectedFields,
                         PsiElementFactory factory,
                         JavaCodeStyleManager codeStyleManager,
@@ -20,6 +22,7 @@ public record PsiParams(PsiFile file,
 
     public static final class Builder {
         private PsiFile file;
+        private PsiClass targetClass;
         private List<PsiFieldMember> selectedFields;
         private PsiElementFactory factory;
         private JavaCodeStyleManager codeStyleManager;
@@ -33,6 +36,11 @@ public record PsiParams(PsiFile file,
             return this;
         }
 
+        public Builder targetClass(PsiClass targetClass) {
+            this.targetClass = targetClass;
+            return this;
+        }
+
         public Builder selectedFields(List<PsiFieldMember> selectedFields) {
             this.selectedFields = selectedFields;
             return this;
@@ -54,7 +62,7 @@ public record PsiParams(PsiFile file,
         }
 
         public PsiParams build() {
-            return new PsiParams(file, selectedFields, factory, codeStyleManager, psiManager);
+            return new PsiParams(file, targetClass, selectedFields, factory, codeStyleManager, psiManager);
         }
     }
 }
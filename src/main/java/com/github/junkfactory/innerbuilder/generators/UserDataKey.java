@@ -9,4 +9,6 @@ final class UserDataKey {
 
     static final Key<String> METHOD_REF = Key.create("METHOD_REF");
 
+    static final Key<String> BULK_METHOD_REF = Key.create("BULK_METHOD_REF");
+
 }
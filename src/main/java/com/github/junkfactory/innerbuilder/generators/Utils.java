@@ -2,12 +2,14 @@ package com.github.junkfactory.innerbuilder.generators;
 
 import com.intellij.openapi.editor.Editor;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
 import com.intellij.psi.PsiParameter;
 import com.intellij.psi.PsiParameterList;
+import com.intellij.psi.PsiPrimitiveType;
 import com.intellij.psi.PsiType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.psi.util.PsiUtil;
@@ -73,7 +75,15 @@ public class Utils {
     @Nullable
     public static PsiClass getStaticOrTopLevelClass(PsiFile file, Editor editor) {
         var offset = editor.getCaretModel().getOffset();
-        var element = file.findElementAt(offset);
+        return getStaticOrTopLevelClass(file.findElementAt(offset));
+    }
+
+    /**
+     * @param element element inside the class, e.g. from an intention or inspection
+     * @return psiClass if class is static or top level. Otherwise returns {@code null}
+     */
+    @Nullable
+    public static PsiClass getStaticOrTopLevelClass(@Nullable PsiElement element) {
         if (element == null) {
             return null;
         }
@@ -108,13 +118,30 @@ public class Utils {
         var methods = Optional.ofNullable(fieldClass)
                 .map(PsiClass::getAllMethods)
                 .orElseGet(() -> new PsiMethod[0]);
+        //primitive collections overload with boxed variants, prefer the unboxed ones
+        PsiMethod foundMethod = null;
+        var foundPrimitiveCount = -1;
         for (var method : methods) {
             if (method.getName().equals(methodName) &&
                     method.getParameterList().getParametersCount() == parameterCount) {
-                return method;
+                var primitiveCount = countPrimitiveParameters(method);
+                if (primitiveCount > foundPrimitiveCount) {
+                    foundMethod = method;
+                    foundPrimitiveCount = primitiveCount;
+                }
+            }
+        }
+        return foundMethod;
+    }
+
+    private static int countPrimitiveParameters(PsiMethod method) {
+        var count = 0;
+        for (var parameter : method.getParameterList().getParameters()) {
+            if (parameter.getType() instanceof PsiPrimitiveType) {
+                count++;
             }
         }
-        return null;
+        return count;
     }
 
     public static PsiType resolveGenericParameterType(PsiType fieldType, PsiParameter param) {
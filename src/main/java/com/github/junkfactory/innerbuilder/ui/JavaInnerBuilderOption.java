@@ -13,9 +13,39 @@ public enum JavaInnerBuilderOption {
     WITH_TO_BUILDER_METHOD("JavaInnerBuilderOption.toBuilder",
             "Generate 'toBuilder()' method",
             Type.BOOLEAN),
+    WITH_COPY_ON_WRITE_TO_BUILDER("JavaInnerBuilderOption.copyOnWriteToBuilder",
+            "Copy-on-write 'toBuilder()'",
+            Type.BOOLEAN),
+    WITH_WITHER_METHODS("JavaInnerBuilderOption.withers",
+            "Generate 'withX()' methods",
+            Type.BOOLEAN),
     WITH_VALIDATE_METHOD("JavaInnerBuilderOption.validate",
             "Generate 'validate()' method",
-            Type.BOOLEAN);
+            Type.BOOLEAN),
+    WITH_PRESENCE_BITMASK("JavaInnerBuilderOption.presenceBitmask",
+            "Track set fields in a bitmask",
+            Type.BOOLEAN),
+    WITH_RESET_METHOD("JavaInnerBuilderOption.reset",
+            "Generate 'reset()' method",
+            Type.BOOLEAN),
+    WITH_DIRECT_WRITE("JavaInnerBuilderOption.directWrite",
+            "Write directly into the built object",
+            Type.BOOLEAN),
+    WITH_BATCH_BUILDER("JavaInnerBuilderOption.batchBuilder",
+            "Generate 'BatchBuilder' class",
+            Type.BOOLEAN),
+    COLLECTION_FINALIZATION("JavaInnerBuilderOption.collectionFinalization",
+            "Collections on build",
+            Type.DROPDOWN),
+    SHARE_COLLECTIONS("JavaInnerBuilderOption.shareCollections",
+            "Share with the built object",
+            Type.VALUE),
+    COPY_COLLECTIONS("JavaInnerBuilderOption.copyCollections",
+            "Copy",
+            Type.VALUE),
+    IMMUTABLE_COLLECTIONS("JavaInnerBuilderOption.immutableCollections",
+            "Immutable copy",
+            Type.VALUE);
 
     private final String property;
     private final String description;
@@ -61,6 +91,6 @@ public enum JavaInnerBuilderOption {
     }
 
     public enum Type {
-        BOOLEAN, LIST
+        BOOLEAN, LIST, DROPDOWN, VALUE
     }
 }
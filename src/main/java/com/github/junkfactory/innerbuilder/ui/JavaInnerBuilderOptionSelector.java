@@ -2,7 +2,6 @@ package com.github.junkfactory.innerbuilder.ui;
 
 import com.github.junkfactory.innerbuilder.generators.Utils;
 import com.intellij.codeInsight.generation.PsiFieldMember;
-import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
@@ -13,23 +12,29 @@ import com.intellij.ui.NonFocusableCheckBox;
 import com.intellij.ui.border.CustomLineBorder;
 import com.intellij.util.ui.JBUI;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.JComponent;
 import javax.swing.JTextArea;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 public class JavaInnerBuilderOptionSelector {
 
+    private static final String CLASS_ONLY = "JavaInnerBuilder.classOnly";
+
     private final DropdownListCellRenderer renderer = new DropdownListCellRenderer();
 
     private final List<PsiFieldMember> members;
     private final Project project;
+    private final String targetClassName;
 
     private JavaInnerBuilderOptionSelector(Builder builder) {
         members = builder.members;
         project = builder.project;
+        targetClassName = builder.targetClassName;
     }
 
     public static Builder builder() {
@@ -42,10 +47,48 @@ public class JavaInnerBuilderOptionSelector {
                 JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
                 'o'
         ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_COPY_ON_WRITE_TO_BUILDER,
+                'c',
+                "'toBuilder()' references this object and copies fields only once they are written"
+        ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_WITHER_METHODS,
+                'h',
+                "Changed copies of the object without going through the builder"
+        ));
         options.add(new CheckboxSelectorOption(
                 JavaInnerBuilderOption.WITH_VALIDATE_METHOD,
                 'v'
         ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_PRESENCE_BITMASK,
+                'm',
+                "Required: final fields without a default, i.e. all record components. Boxed fields are held unboxed"
+        ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_RESET_METHOD,
+                'r'
+        ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_DIRECT_WRITE,
+                'w',
+                "Classes whose selected fields are all non-final only"
+        ));
+        options.add(new CheckboxSelectorOption(
+                JavaInnerBuilderOption.WITH_BATCH_BUILDER,
+                'b',
+                "Builds many objects at once from one array per field"
+        ));
+        options.add(new DropdownSelectorOption(
+                JavaInnerBuilderOption.COLLECTION_FINALIZATION,
+                "How collections the builder adds to are passed on; immutable copies reject null elements",
+                List.of(
+                        DropdownSelectorOptionValue.of(JavaInnerBuilderOption.SHARE_COLLECTIONS),
+                        DropdownSelectorOptionValue.of(JavaInnerBuilderOption.COPY_COLLECTIONS),
+                        DropdownSelectorOptionValue.of(JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS)
+                )
+        ));
         return options;
     }
 
@@ -68,6 +111,9 @@ public class JavaInnerBuilderOptionSelector {
         for (var optionComponent : optionsArray) {
             var builderOption = (JavaInnerBuilderOption) optionComponent.getClientProperty(
                     JavaInnerBuilderOption.class);
+            if (builderOption == null) {
+                continue;
+            }
             builderOption.createValidator(PsiManager.getInstance(project), chooser.getDisposable(), optionComponent);
         }
 
@@ -75,117 +121,126 @@ public class JavaInnerBuilderOptionSelector {
         chooser.selectElements(memberArray);
         if (chooser.showAndGet()) {
             var optionControls = chooser.getOptionControls();
-            setPropertyValuesFromOptions(optionControls);
+            saveOptions(optionControls);
             return chooser.getSelectedElements();
         }
         return List.of();
     }
 
-    private void setPropertyValuesFromOptions(JComponent[] optionComponents) {
-        var propertiesComponent = PropertiesComponent.getInstance();
+    private void saveOptions(JComponent[] optionComponents) {
+        var settings = JavaInnerBuilderSettings.getInstance(project);
+        var selectedOptions = EnumSet.noneOf(JavaInnerBuilderOption.class);
+        var classOnly = false;
         for (var component : optionComponents) {
             var option = (JavaInnerBuilderOption) component.getClientProperty(JavaInnerBuilderOption.class);
-            if (component instanceof LabeledComponent<?> labeledComponent &&
+            if (component.getClientProperty(CLASS_ONLY) != null) {
+                classOnly = ((NonFocusableCheckBox) component).isSelected();
+            } else if (component instanceof LabeledComponent<?> labeledComponent &&
                     labeledComponent.getComponent() instanceof JTextArea textArea) {
                 var annotations = Utils.stringToList(textArea.getText());
-                propertiesComponent.setList(option.getProperty(), annotations);
+                settings.setList(option, annotations);
+                if (!annotations.isEmpty()) {
+                    selectedOptions.add(option);
+                }
             } else if (component instanceof NonFocusableCheckBox checkBox) {
-                propertiesComponent.setValue(option.getProperty(),
-                        Boolean.toString(checkBox.isSelected()));
+                if (checkBox.isSelected()) {
+                    selectedOptions.add(option);
+                }
             } else if (component instanceof LabeledComponent<?> labeledComponent &&
                     labeledComponent.getComponent() instanceof ComboBox<?> comboBox) {
                 var selectedValue = (DropdownSelectorOptionValue) comboBox.getSelectedItem();
                 if (null != selectedValue) {
-                    propertiesComponent.setValue(option.getProperty(), selectedValue.option().getProperty());
+                    selectedOptions.add(selectedValue.option());
                 }
             }
         }
+        settings.setOptions(targetClassName, selectedOptions, classOnly);
     }
 
     private JComponent[] buildOptions() {
-        var propertiesComponent = PropertiesComponent.getInstance();
+        var settings = JavaInnerBuilderSettings.getInstance(project);
+        var currentOptions = settings.getOptions(targetClassName);
         var options = createGeneratorOptions();
-        var optionCount = options.size();
-        var checkBoxesArray = new JComponent[optionCount];
-        for (int i = 0; i < optionCount; i++) {
-            var option = options.get(i);
-            var optionComponent = buildOptions(propertiesComponent, option);
+        var components = new ArrayList<JComponent>(options.size() + 1);
+        for (var option : options) {
+            var optionComponent = buildOptions(settings, currentOptions, option);
             optionComponent.putClientProperty(JavaInnerBuilderOption.class, option.option());
-            checkBoxesArray[i] = optionComponent;
+            components.add(optionComponent);
         }
-        return checkBoxesArray;
+        if (targetClassName != null) {
+            components.add(buildClassOnlyCheckbox(settings));
+        }
+        return components.toArray(new JComponent[0]);
+    }
+
+    private JComponent buildClassOnlyCheckbox(JavaInnerBuilderSettings settings) {
+        var classOnlyCheckBox = new NonFocusableCheckBox("Save for this class only");
+        classOnlyCheckBox.setMnemonic('s');
+        classOnlyCheckBox.setToolTipText("Stores the options as an override of " + targetClassName +
+                " instead of the project options");
+        classOnlyCheckBox.setSelected(settings.hasClassOptions(targetClassName));
+        classOnlyCheckBox.putClientProperty(CLASS_ONLY, Boolean.TRUE);
+        return classOnlyCheckBox;
     }
 
-    private JComponent buildOptions(PropertiesComponent propertiesComponent, SelectorOption selectorOption) {
+    private JComponent buildOptions(JavaInnerBuilderSettings settings, Set<JavaInnerBuilderOption> currentOptions,
+                                    SelectorOption selectorOption) {
         if (selectorOption instanceof CheckboxSelectorOption checkboxSelectorOption) {
-            return buildCheckbox(propertiesComponent, checkboxSelectorOption);
+            return buildCheckbox(currentOptions, checkboxSelectorOption);
         } else if (selectorOption instanceof TextAreaOption textAreaOption) {
-            return buildTextArea(propertiesComponent, textAreaOption);
+            return buildTextArea(settings, textAreaOption);
         }
-        return buildDropdown(propertiesComponent, (DropdownSelectorOption) selectorOption);
+        return buildDropdown(currentOptions, (DropdownSelectorOption) selectorOption);
     }
 
     @NotNull
-    private LabeledComponent<JTextArea> buildTextArea(PropertiesComponent propertiesComponent,
+    private LabeledComponent<JTextArea> buildTextArea(JavaInnerBuilderSettings settings,
                                                       TextAreaOption textAreaOption) {
         var textArea = new JTextArea(textAreaOption.numLines(), textAreaOption.numColumns());
-        if (textAreaOption.option().getType() == JavaInnerBuilderOption.Type.LIST) {
-            var annotations = propertiesComponent.getList(textAreaOption.option().getProperty());
-            if (null != annotations) {
-                textArea.setText(String.join("\n", annotations));
-            }
-        } else {
-            textArea.setText(propertiesComponent.getValue(textAreaOption.option().getProperty()));
-        }
+        textArea.setText(String.join("\n", settings.getList(textAreaOption.option())));
         textArea.setBorder(new CustomLineBorder(JBColor.border(), JBUI.insets(1)));
         var labeledComponent = LabeledComponent.create(textArea, textAreaOption.caption());
         labeledComponent.setToolTipText(textAreaOption.toolTip());
         return labeledComponent;
     }
 
-    private JComponent buildCheckbox(PropertiesComponent propertiesComponent,
+    private JComponent buildCheckbox(Set<JavaInnerBuilderOption> currentOptions,
                                      CheckboxSelectorOption selectorOption) {
         var optionCheckBox = new NonFocusableCheckBox(selectorOption.caption());
         optionCheckBox.setMnemonic(selectorOption.mnemonic());
         optionCheckBox.setToolTipText(selectorOption.toolTip());
 
-        var optionProperty = selectorOption.option().getProperty();
-        optionCheckBox.setSelected(propertiesComponent.isTrueValue(optionProperty));
+        optionCheckBox.setSelected(currentOptions.contains(selectorOption.option()));
         return optionCheckBox;
     }
 
-    private JComponent buildDropdown(PropertiesComponent propertiesComponent,
+    private JComponent buildDropdown(Set<JavaInnerBuilderOption> currentOptions,
                                      DropdownSelectorOption selectorOption) {
         final var comboBox = new ComboBox<DropdownSelectorOptionValue>();
         comboBox.setEditable(false);
         comboBox.setRenderer(renderer);
         selectorOption.values().forEach(comboBox::addItem);
 
-        comboBox.setSelectedItem(setSelectedComboBoxItem(propertiesComponent, selectorOption));
+        comboBox.setSelectedItem(findSelectedComboBoxItem(currentOptions, selectorOption));
 
         var labeledComponent = LabeledComponent.create(comboBox, selectorOption.caption());
         labeledComponent.setToolTipText(selectorOption.toolTip());
         return labeledComponent;
     }
 
-    private DropdownSelectorOptionValue setSelectedComboBoxItem(PropertiesComponent propertiesComponent,
-                                                                DropdownSelectorOption selectorOption) {
-        var selectedValue = propertiesComponent.getValue(selectorOption.option().getProperty());
-        var selectorOptionValue = selectorOption.values()
+    private static DropdownSelectorOptionValue findSelectedComboBoxItem(Set<JavaInnerBuilderOption> currentOptions,
+                                                                        DropdownSelectorOption selectorOption) {
+        return selectorOption.values()
                 .stream()
-                .filter(it -> Objects.equals(it.option().getProperty(), selectedValue))
+                .filter(it -> currentOptions.contains(it.option()))
                 .findFirst()
                 .orElse(selectorOption.values().get(0));
-        if (null == selectedValue) {
-            propertiesComponent.setValue(selectorOption.option().getProperty(),
-                    selectorOptionValue.option().getProperty());
-        }
-        return selectorOptionValue;
     }
 
     public static final class Builder {
         private List<PsiFieldMember> members;
         private Project project;
+        private String targetClassName;
 
         private Builder() {
         }
@@ -200,6 +255,11 @@ public class JavaInnerBuilderOptionSelector {
             return this;
         }
 
+        public Builder targetClassName(@Nullable String targetClassName) {
+            this.targetClassName = targetClassName;
+            return this;
+        }
+
         public JavaInnerBuilderOptionSelector build() {
             return new JavaInnerBuilderOptionSelector(this);
         }
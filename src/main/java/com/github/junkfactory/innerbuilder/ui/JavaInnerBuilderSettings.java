@@ -0,0 +1,218 @@
+package com.github.junkfactory.innerbuilder.ui;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.annotations.Tag;
+import com.intellij.util.xmlb.annotations.XCollection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generation options of a project, stored in {@code .idea/javaInnerBuilder.xml} so they can be shared through version
+ * control. Classes can override the project options with an entry of their qualified name in the same file. The
+ * options are parsed once when the file is loaded and kept as option sets, so generation reads no properties. The
+ * stored state is only changed while holding the lock of the settings, and is handed to the serializer as a copy, so
+ * options set on the EDT don't race with a save or with bulk and headless runs.
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "JavaInnerBuilderSettings", storages = @Storage("javaInnerBuilder.xml"))
+public final class JavaInnerBuilderSettings implements PersistentStateComponent<JavaInnerBuilderSettings.OptionsState> {
+
+    private OptionsState state = new OptionsState();
+    //read by bulk and headless runs off the EDT
+    private volatile Set<JavaInnerBuilderOption> projectOptions = EnumSet.noneOf(JavaInnerBuilderOption.class);
+    private final Map<String, Set<JavaInnerBuilderOption>> classOptions = new ConcurrentHashMap<>();
+    private final Map<JavaInnerBuilderOption, List<String>> lists =
+            Collections.synchronizedMap(new EnumMap<>(JavaInnerBuilderOption.class));
+
+    public static JavaInnerBuilderSettings getInstance(Project project) {
+        return project.getService(JavaInnerBuilderSettings.class);
+    }
+
+    /**
+     * @param className qualified name of the class to generate the builder for, if any
+     * @return options of the class if it overrides them, otherwise those of the project
+     */
+    public Set<JavaInnerBuilderOption> getOptions(@Nullable String className) {
+        var options = className == null ? null : classOptions.get(className);
+        return Collections.unmodifiableSet(options == null ? projectOptions : options);
+    }
+
+    /**
+     * @param className qualified name of a class, if any
+     * @return whether the class overrides the project options
+     */
+    public boolean hasClassOptions(@Nullable String className) {
+        return className != null && classOptions.containsKey(className);
+    }
+
+    /**
+     * Updates the options of the class if it overrides them, otherwise those of the project.
+     *
+     * @param className qualified name of the class the builder was generated for, if any
+     * @param options   options used for the builder
+     */
+    public synchronized void setOptions(@Nullable String className, Set<JavaInnerBuilderOption> options) {
+        setOptions(className, options, hasClassOptions(className));
+    }
+
+    /**
+     * Stores the options as an override of the class, or as the project options, dropping any override of the class.
+     *
+     * @param className qualified name of the class the builder was generated for, if any
+     * @param options   options used for the builder
+     * @param classOnly whether the options apply to the class only
+     */
+    public synchronized void setOptions(@Nullable String className, Set<JavaInnerBuilderOption> options,
+                                        boolean classOnly) {
+        var optionsCopy = EnumSet.noneOf(JavaInnerBuilderOption.class);
+        optionsCopy.addAll(options);
+        if (className != null && classOnly) {
+            classOptions.put(className, optionsCopy);
+            var classState = state.classOptions.stream()
+                    .filter(it -> className.equals(it.className))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        var newState = new ClassOptionsState();
+                        newState.className = className;
+                        state.classOptions.add(newState);
+                        return newState;
+                    });
+            classState.options = optionNames(optionsCopy);
+        } else {
+            if (className != null && classOptions.remove(className) != null) {
+                state.classOptions.removeIf(it -> className.equals(it.className));
+            }
+            projectOptions = optionsCopy;
+            state.options = optionNames(optionsCopy);
+        }
+    }
+
+    public List<String> getList(JavaInnerBuilderOption option) {
+        return lists.getOrDefault(option, List.of());
+    }
+
+    public synchronized void setList(JavaInnerBuilderOption option, List<String> values) {
+        lists.put(option, List.copyOf(values));
+        state.lists.put(option.name(), new ArrayList<>(values));
+    }
+
+    @Override
+    public synchronized @NotNull OptionsState getState() {
+        return state.copy();
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull OptionsState state) {
+        this.state = state;
+        projectOptions = parseOptions(state.options);
+        classOptions.clear();
+        for (var classState : state.classOptions) {
+            if (classState.className != null) {
+                classOptions.put(classState.className, parseOptions(classState.options));
+            }
+        }
+        lists.clear();
+        state.lists.forEach((name, values) -> findOption(name)
+                .ifPresent(option -> lists.put(option, List.copyOf(values))));
+    }
+
+    /**
+     * Takes over the options last used before they were stored per project.
+     */
+    @Override
+    public void noStateLoaded() {
+        var propertiesComponent = PropertiesComponent.getInstance();
+        var options = EnumSet.noneOf(JavaInnerBuilderOption.class);
+        for (var option : JavaInnerBuilderOption.values()) {
+            switch (option.getType()) {
+                case BOOLEAN:
+                    if (propertiesComponent.getBoolean(option.getProperty(), false)) {
+                        options.add(option);
+                    }
+                    break;
+                case LIST:
+                    var list = propertiesComponent.getList(option.getProperty());
+                    if (null != list) {
+                        setList(option, list);
+                        if (!list.isEmpty()) {
+                            options.add(option);
+                        }
+                    }
+                    break;
+                case VALUE:
+                    //selected through their dropdown
+                    break;
+                default:
+                    String currentValue = String.valueOf(propertiesComponent.getValue(option.getProperty()));
+                    JavaInnerBuilderOption.findValue(currentValue).ifPresent(options::add);
+            }
+        }
+        setOptions(null, options);
+    }
+
+    private static Set<JavaInnerBuilderOption> parseOptions(Set<String> names) {
+        var options = EnumSet.noneOf(JavaInnerBuilderOption.class);
+        names.forEach(name -> findOption(name).ifPresent(options::add));
+        return options;
+    }
+
+    private static Optional<JavaInnerBuilderOption> findOption(String name) {
+        try {
+            return Optional.of(JavaInnerBuilderOption.valueOf(name));
+        } catch (IllegalArgumentException e) {
+            //dropped in a later version
+            return Optional.empty();
+        }
+    }
+
+    private static Set<String> optionNames(Set<JavaInnerBuilderOption> options) {
+        var names = new TreeSet<String>();
+        options.forEach(option -> names.add(option.name()));
+        return names;
+    }
+
+    public static final class OptionsState {
+        public Set<String> options = new TreeSet<>();
+        public Map<String, List<String>> lists = new HashMap<>();
+        @XCollection(style = XCollection.Style.v2)
+        public List<ClassOptionsState> classOptions = new ArrayList<>();
+
+        private OptionsState copy() {
+            var copy = new OptionsState();
+            copy.options = new TreeSet<>(options);
+            lists.forEach((name, values) -> copy.lists.put(name, new ArrayList<>(values)));
+            classOptions.forEach(classState -> copy.classOptions.add(classState.copy()));
+            return copy;
+        }
+    }
+
+    @Tag("class")
+    public static final class ClassOptionsState {
+        public String className;
+        public Set<String> options = new TreeSet<>();
+
+        private ClassOptionsState copy() {
+            var copy = new ClassOptionsState();
+            copy.className = className;
+            copy.options = new TreeSet<>(options);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.junkfactory.innerbuilder;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderSettings;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.EnumSet;
+
+/**
+ * Latency of generating a builder through the action's handler, from collecting the fields to reformatting, with a
+ * time budget per class shape.
+ */
+public class JavaInnerBuilderHandlerPerformanceTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private final JavaInnerBuilderHandler handler = new JavaInnerBuilderHandler();
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            JavaInnerBuilderSettings.getInstance(getProject())
+                    .setOptions(null, EnumSet.noneOf(JavaInnerBuilderOption.class));
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testTenFields() {
+        assertGeneratedWithin("10 fields", 500, classText("Dto", null, 10));
+    }
+
+    public void testHundredFields() {
+        assertGeneratedWithin("100 fields", 1_500, classText("Dto", null, 100));
+    }
+
+    public void testThousandFields() {
+        assertGeneratedWithin("1000 fields", 10_000, classText("Dto", null, 1_000));
+    }
+
+    public void testHundredFieldsWithOptions() {
+        JavaInnerBuilderSettings.getInstance(getProject()).setOptions(null, EnumSet.of(
+                JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                JavaInnerBuilderOption.WITH_PRESENCE_BITMASK,
+                JavaInnerBuilderOption.WITH_RESET_METHOD,
+                JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS));
+        assertGeneratedWithin("100 fields with options", 2_000, classText("Dto", null, 100));
+    }
+
+    public void testDeepHierarchy() {
+        String superClassName = null;
+        for (int level = 0; level < 10; level++) {
+            var className = "Level" + level;
+            myFixture.addClass(superClassText(className, superClassName, 20));
+            superClassName = className;
+        }
+        assertGeneratedWithin("deep hierarchy", 2_000, classText("Dto", superClassName, 20));
+    }
+
+    public void testExistingBuilder() {
+        var text = classText("Dto", null, 100);
+        PlatformTestUtil.startPerformanceTest("existing builder", 1_500, this::generate)
+                .setup(() -> {
+                    myFixture.configureByText("Dto.java", text);
+                    generate();
+                })
+                .assertTiming();
+        assertHasBuilder();
+    }
+
+    private void assertGeneratedWithin(String what, int expectedMs, String text) {
+        PlatformTestUtil.startPerformanceTest(what, expectedMs, this::generate)
+                .setup(() -> myFixture.configureByText("Dto.java", text))
+                .assertTiming();
+        assertHasBuilder();
+    }
+
+    private void generate() {
+        handler.invoke(getProject(), myFixture.getEditor(), myFixture.getFile());
+    }
+
+    private void assertHasBuilder() {
+        var targetClass = ((PsiJavaFile) myFixture.getFile()).getClasses()[0];
+        assertNotNull(targetClass.findInnerClassByName("Builder", false));
+    }
+
+    /**
+     * @return class with fields of mixed types, a collection among every ten of them, and the caret in its body
+     */
+    private static String classText(String className, String superClassName, int fieldCount) {
+        var text = new StringBuilder()
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.List;\n")
+                .append("public class ")
+                .append(className)
+                .append(superClassName == null ? "" : " extends " + superClassName)
+                .append(" {\n<caret>");
+        var prefix = className.toLowerCase();
+        for (int i = 0; i < fieldCount; i++) {
+            var fieldName = prefix + i;
+            switch (i % 10) {
+                case 0 -> text.append("private List<String> ").append(fieldName).append(" = new ArrayList<>();\n");
+                case 1, 2, 3 -> text.append("private int ").append(fieldName).append(";\n");
+                case 4 -> text.append("private final Long ").append(fieldName).append(";\n");
+                default -> text.append("private String ").append(fieldName).append(";\n");
+            }
+        }
+        return text.append("}\n").toString();
+    }
+
+    /**
+     * @return superclass whose fields are inherited, half of them protected and half private with a setter
+     */
+    private static String superClassText(String className, String superClassName, int fieldCount) {
+        var text = new StringBuilder()
+                .append("public class ")
+                .append(className)
+                .append(superClassName == null ? "" : " extends " + superClassName)
+                .append(" {\n");
+        var prefix = className.toLowerCase();
+        for (int i = 0; i < fieldCount; i++) {
+            var fieldName = prefix + i;
+            if (i % 2 == 0) {
+                text.append("protected String ").append(fieldName).append(";\n");
+            } else {
+                text.append("private String ").append(fieldName).append(";\n")
+                        .append("public void set").append(Character.toUpperCase(fieldName.charAt(0)))
+                        .append(fieldName.substring(1)).append("(String ").append(fieldName).append(") {")
+                        .append("this.").append(fieldName).append(" = ").append(fieldName).append(";}\n");
+            }
+        }
+        return text.append("}\n").toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+
+import java.util.EnumSet;
+
+/**
+ * Batch builders of classes whose fields are named like the locals of {@code build()}, and of classes without
+ * fields.
+ */
+public class BatchBuilderGeneratorTest extends GeneratorTestCase {
+
+    public void testFieldsNamedLikeLocals() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private final int size;
+                    private final String built;
+                    private final long i;
+                    private final String builder;
+                    private final String row;
+                }
+                """);
+        assertBatchBuilderCompiles(EnumSet.of(JavaInnerBuilderOption.WITH_BATCH_BUILDER));
+    }
+
+    public void testRecordComponentsNamedLikeLocals() {
+        myFixture.configureByText("Dto.java", """
+                public record Dto(int size, String built, long i, String builder, String row) {
+                }
+                """);
+        assertBatchBuilderCompiles(EnumSet.of(JavaInnerBuilderOption.WITH_BATCH_BUILDER));
+    }
+
+    public void testDirectWriteFieldsNamedLikeLocals() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private int size;
+                    private String built;
+                    private long i;
+                    private String builder;
+                    private String row;
+                    public void setRow(String row) {
+                        this.row = row;
+                    }
+                }
+                """);
+        assertBatchBuilderCompiles(EnumSet.of(JavaInnerBuilderOption.WITH_BATCH_BUILDER,
+                JavaInnerBuilderOption.WITH_DIRECT_WRITE));
+    }
+
+    public void testNoFields() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                }
+                """);
+        generate(EnumSet.of(JavaInnerBuilderOption.WITH_BATCH_BUILDER));
+        assertNull(targetClass().findInnerClassByName(AbstractGenerator.BATCH_BUILDER_CLASS_NAME, false));
+        assertEmpty(targetClass().findMethodsByName(AbstractGenerator.BATCH_BUILDER_METHOD_NAME, false));
+        assertNoErrors();
+    }
+
+    private void assertBatchBuilderCompiles(EnumSet<JavaInnerBuilderOption> options) {
+        generate(options);
+        assertNotNull(targetClass().findInnerClassByName(AbstractGenerator.BATCH_BUILDER_CLASS_NAME, false));
+        assertNoErrors();
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the builders of the JMH benchmark models in {@code src/jmh/models}, so the benchmarks measure the code
+ * the generators emit. {@code ./gradlew generateJmhModels} writes the generated models to the directory the jmh
+ * source set compiles.
+ */
+public class BenchmarkModelsTest extends GeneratorTestCase {
+
+    static final String OUTPUT_PROPERTY = "innerbuilder.jmh.generatedModels";
+
+    private static final Path MODELS = Path.of("src", "jmh", "models");
+    private static final String MODEL_PACKAGE = "com/github/junkfactory/innerbuilder/benchmark/model";
+    private static final Map<String, Set<JavaInnerBuilderOption>> MODEL_OPTIONS = Map.of(
+            "SmallPojo", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.WITH_WITHER_METHODS),
+            "SmallPojoBitmask", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.WITH_PRESENCE_BITMASK,
+                    JavaInnerBuilderOption.WITH_VALIDATE_METHOD),
+            "SmallPojoDirect", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.WITH_DIRECT_WRITE),
+            "Point", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD),
+            "LargeDto", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD),
+            "Order", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.SHARE_COLLECTIONS),
+            "OrderImmutable", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS),
+            "OrderCopyOnWrite", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+                    JavaInnerBuilderOption.WITH_COPY_ON_WRITE_TO_BUILDER),
+            "Trade", EnumSet.of(JavaInnerBuilderOption.WITH_BATCH_BUILDER));
+
+    public void testGenerateModels() throws IOException {
+        var modelDirectory = MODELS.resolve(MODEL_PACKAGE);
+        var modelNames = new TreeSet<String>();
+        try (var paths = Files.list(modelDirectory)) {
+            paths.forEach(path -> modelNames.add(path.getFileName().toString().replace(".java", "")));
+        }
+        assertEquals(new TreeSet<>(MODEL_OPTIONS.keySet()), modelNames);
+
+        var output = System.getProperty(OUTPUT_PROPERTY);
+        for (var modelName : modelNames) {
+            var fileName = modelName + ".java";
+            var file = myFixture.addFileToProject(MODEL_PACKAGE + "/" + fileName,
+                    Files.readString(modelDirectory.resolve(fileName)));
+            myFixture.configureFromExistingVirtualFile(file.getVirtualFile());
+            generate(MODEL_OPTIONS.get(modelName));
+            assertNoErrors();
+            if (output != null) {
+                var generatedFile = Path.of(output).resolve(MODEL_PACKAGE).resolve(fileName);
+                Files.createDirectories(generatedFile.getParent());
+                Files.writeString(generatedFile, myFixture.getFile().getText());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.testFramework.PlatformTestUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+
+/**
+ * Cost of generating a new builder class, rendered as text and inserted at once, against adding its members one by
+ * one to an empty builder class.
+ */
+public class BuilderClassGeneratorPerformanceTest extends GeneratorTestCase {
+
+    private static final String EMPTY_BUILDER = "public static final class Builder {}\n";
+
+    private int psiEvents;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        PsiManager.getInstance(getProject()).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                psiEvents++;
+            }
+
+            @Override
+            public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+                psiEvents++;
+            }
+
+            @Override
+            public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                psiEvents++;
+            }
+
+            @Override
+            public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+                psiEvents++;
+            }
+        }, getTestRootDisposable());
+    }
+
+    public void testTenFields() {
+        assertRenderedWithin(10, 300);
+    }
+
+    public void testHundredFields() {
+        assertRenderedWithin(100, 1_000);
+    }
+
+    public void testFiveHundredFields() {
+        assertRenderedWithin(500, 4_000);
+    }
+
+    /**
+     * Renders the builder within the budget, and with fewer PSI events than adding its members one by one.
+     */
+    private void assertRenderedWithin(int fieldCount, int expectedMs) {
+        var renderedEvents = countEvents(classText(fieldCount, ""));
+        var perElementEvents = countEvents(classText(fieldCount, EMPTY_BUILDER));
+        assertTrue("rendered " + renderedEvents + " events, per element " + perElementEvents,
+                renderedEvents < perElementEvents);
+
+        PlatformTestUtil.startPerformanceTest("render builder of " + fieldCount + " fields", expectedMs,
+                        this::generateBuilder)
+                .setup(() -> myFixture.configureByText("Dto.java", classText(fieldCount, "")))
+                .assertTiming();
+    }
+
+    private int countEvents(String text) {
+        myFixture.configureByText("Dto.java", text);
+        psiEvents = 0;
+        generateBuilder();
+        var events = psiEvents;
+        assertNotNull(targetClass().findInnerClassByName(AbstractGenerator.BUILDER_CLASS_NAME, false));
+        return events;
+    }
+
+    private void generateBuilder() {
+        generate(EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD));
+    }
+
+    private static String classText(int fieldCount, String builderText) {
+        var text = new StringBuilder()
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.List;\n")
+                .append("public class Dto {\n");
+        for (int i = 0; i < fieldCount; i++) {
+            if (i % 10 == 0) {
+                text.append("private List<String> field").append(i).append(" = new ArrayList<>();\n");
+            } else {
+                text.append("private String field").append(i).append(";\n");
+            }
+        }
+        return text.append(builderText).append("}\n").toString();
+    }
+}
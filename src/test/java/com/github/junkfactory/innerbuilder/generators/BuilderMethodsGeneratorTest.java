@@ -0,0 +1,122 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+
+import java.util.EnumSet;
+
+/**
+ * Methods the builder adds to its collections with.
+ */
+public class BuilderMethodsGeneratorTest extends GeneratorTestCase {
+
+    public void testAddAndPutKeepParameterNames() {
+        myFixture.addClass("""
+                public class Tags extends java.util.ArrayList<String> {
+                    @Override
+                    public boolean add(String newTag) {
+                        return super.add(newTag);
+                    }
+                }
+                """);
+        myFixture.addClass("""
+                public class Scores extends java.util.HashMap<String, Integer> {
+                    @Override
+                    public Integer put(String playerName, Integer bestScore) {
+                        return super.put(playerName, bestScore);
+                    }
+                }
+                """);
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private Tags tags = new Tags();
+                    private Scores scores = new Scores();
+                }
+                """);
+        generate(EnumSet.noneOf(JavaInnerBuilderOption.class));
+        var text = myFixture.getFile().getText();
+        assertTrue(text, text.contains("addToTags(String newTag)"));
+        assertTrue(text, text.contains("this.tags.add(newTag);"));
+        assertTrue(text, text.contains("putToScores(String playerName, Integer bestScore)"));
+        assertTrue(text, text.contains("this.scores.put(playerName, bestScore);"));
+        assertNoErrors();
+    }
+
+    public void testSharedCollectionsArePassedAsTheyAre() {
+        configureCollectionDto();
+        generate(EnumSet.of(JavaInnerBuilderOption.SHARE_COLLECTIONS, JavaInnerBuilderOption.WITH_RESET_METHOD));
+        var text = myFixture.getFile().getText();
+        //objects built by a reused builder share its collection until reset() replaces it
+        assertTrue(text, text.contains("tags = builder.tags;"));
+        var builderClass = targetClass().findInnerClassByName(AbstractGenerator.BUILDER_CLASS_NAME, false);
+        assertNotNull(builderClass);
+        var resetMethod = builderClass.findMethodsByName("reset", false);
+        assertSize(1, resetMethod);
+        assertTrue(resetMethod[0].getText(), resetMethod[0].getText().contains("this.tags = new ArrayList<>();"));
+        assertNoErrors();
+    }
+
+    public void testCopiedCollectionsAreNotShared() {
+        configureCollectionDto();
+        generate(EnumSet.of(JavaInnerBuilderOption.COPY_COLLECTIONS));
+        var text = myFixture.getFile().getText();
+        assertTrue(text, text.contains("tags = builder.tags == null ? null : new ArrayList<>(builder.tags);"));
+        assertNoErrors();
+    }
+
+    public void testPrimitiveCollectionsGetUnboxedMethods() {
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.ints;
+                public class IntArrayList {
+                    public boolean add(Integer k) { return true; }
+                    public boolean add(int k) { return true; }
+                }
+                """);
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.ints;
+                public interface Int2LongMap {
+                    Long put(Integer key, Long value);
+                    long put(int key, long value);
+                }
+                """);
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.ints;
+                public class Int2LongOpenHashMap implements Int2LongMap {
+                    public Long put(Integer key, Long value) { return value; }
+                    public long put(int key, long value) { return value; }
+                }
+                """);
+        myFixture.configureByText("Dto.java", """
+                import it.unimi.dsi.fastutil.ints.Int2LongMap;
+                import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+                import it.unimi.dsi.fastutil.ints.IntArrayList;
+                public class Dto {
+                    private IntArrayList ids = new IntArrayList();
+                    private Int2LongMap totals = new Int2LongOpenHashMap();
+                }
+                """);
+        generate(EnumSet.noneOf(JavaInnerBuilderOption.class));
+        var builderClass = targetClass().findInnerClassByName(AbstractGenerator.BUILDER_CLASS_NAME, false);
+        assertNotNull(builderClass);
+        var addMethod = builderClass.findMethodsByName("addToIds", false);
+        assertSize(1, addMethod);
+        assertEquals("int", addMethod[0].getParameterList().getParameters()[0].getType().getCanonicalText());
+        assertTrue(addMethod[0].getText(), addMethod[0].getText().contains("this.ids.add(k);"));
+        var putMethod = builderClass.findMethodsByName("putToTotals", false);
+        assertSize(1, putMethod);
+        var putParameters = putMethod[0].getParameterList().getParameters();
+        assertEquals("int", putParameters[0].getType().getCanonicalText());
+        assertEquals("long", putParameters[1].getType().getCanonicalText());
+        assertTrue(putMethod[0].getText(), putMethod[0].getText().contains("this.totals.put(key, value);"));
+        assertNoErrors();
+    }
+
+    private void configureCollectionDto() {
+        myFixture.configureByText("Dto.java", """
+                import java.util.ArrayList;
+                import java.util.List;
+                public class Dto {
+                    private List<String> tags = new ArrayList<>();
+                }
+                """);
+    }
+}
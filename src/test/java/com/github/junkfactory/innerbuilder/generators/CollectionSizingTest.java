@@ -0,0 +1,57 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+
+import java.util.EnumSet;
+
+/**
+ * Capacity of the collections a builder adds to, taken from the {@code ExpectedSize} annotation of the processor
+ * module only.
+ */
+public class CollectionSizingTest extends GeneratorTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addClass("""
+                package com.github.junkfactory.innerbuilder.processor;
+                public @interface ExpectedSize {
+                    int value();
+                }
+                """);
+        myFixture.addClass("""
+                package com.example.other;
+                public @interface ExpectedSize {
+                    int value();
+                }
+                """);
+    }
+
+    public void testSizedFromExpectedSize() {
+        myFixture.configureByText("Dto.java", """
+                import com.github.junkfactory.innerbuilder.processor.ExpectedSize;
+                import java.util.ArrayList;
+                import java.util.List;
+                public class Dto {
+                    @ExpectedSize(16)
+                    private List<String> names = new ArrayList<>();
+                }
+                """);
+        generate(EnumSet.noneOf(JavaInnerBuilderOption.class));
+        assertTrue(myFixture.getFile().getText().contains("new ArrayList<>(16)"));
+    }
+
+    public void testIgnoresUnrelatedAnnotation() {
+        myFixture.configureByText("Dto.java", """
+                import com.example.other.ExpectedSize;
+                import java.util.ArrayList;
+                import java.util.List;
+                public class Dto {
+                    @ExpectedSize(16)
+                    private List<String> names = new ArrayList<>();
+                }
+                """);
+        generate(EnumSet.noneOf(JavaInnerBuilderOption.class));
+        assertFalse(myFixture.getFile().getText().contains("new ArrayList<>(16)"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiModifier;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cost of collecting the fields of a class whose inherited fields are only reachable through setters, with the same
+ * result as scanning all methods of the class per field.
+ */
+public class FieldCollectorPerformanceTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private static final int LEVELS = 5;
+    private static final int FIELDS_PER_LEVEL = 40;
+    private static final int RUNS = 20;
+
+    private PsiClass targetClass;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        String superClassName = null;
+        for (int level = 0; level < LEVELS; level++) {
+            var className = "Level" + level;
+            myFixture.addClass(classText(className, superClassName));
+            superClassName = className;
+        }
+        targetClass = myFixture.addClass(classText("Target", superClassName));
+    }
+
+    public void testCollectFields() {
+        var fieldCollector = FieldCollector.builder()
+                .targetClass(targetClass)
+                .build();
+        PlatformTestUtil.startPerformanceTest("collect 240 fields", 500, () -> {
+                    for (int i = 0; i < RUNS; i++) {
+                        dropCaches();
+                        fieldCollector.collectFields();
+                    }
+                })
+                .assertTiming();
+        assertEquals((LEVELS + 1) * FIELDS_PER_LEVEL, fieldCollector.collectFields().size());
+    }
+
+    public void testSetterIndexMatchesMethodScan() {
+        var fieldCollector = FieldCollector.builder()
+                .targetClass(targetClass)
+                .build();
+        assertEquals(collectFieldsByMethodScan(targetClass), fieldCollector.collectFields().stream()
+                .map(member -> member.getElement().getName())
+                .toList());
+    }
+
+    private void dropCaches() {
+        PsiManager.getInstance(getProject()).dropPsiCaches();
+    }
+
+    /**
+     * Collects the fields like {@link FieldCollector} did before setter names were indexed, scanning all methods of
+     * the class for each inaccessible field.
+     */
+    private static List<String> collectFieldsByMethodScan(PsiClass clazz) {
+        var helper = JavaPsiFacade.getInstance(clazz.getProject()).getResolveHelper();
+        var fieldNames = new ArrayList<String>();
+        for (var current = clazz; current != null && !"Object".equals(current.getName());
+             current = current.getSuperClass()) {
+            var classFieldNames = new ArrayList<String>();
+            for (var field : current.getFields()) {
+                if ((helper.isAccessible(field, current, clazz) || hasSetter(current, field)) &&
+                        !field.hasModifierProperty(PsiModifier.STATIC)) {
+                    classFieldNames.add(field.getName());
+                }
+            }
+            fieldNames.addAll(0, classFieldNames);
+        }
+        return fieldNames;
+    }
+
+    private static boolean hasSetter(PsiClass clazz, PsiField field) {
+        var setterName = "set" + StringUtil.capitalize(Objects.requireNonNull(field.getName()));
+        for (var method : clazz.getAllMethods()) {
+            if (method.getName().equals(setterName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return class whose fields are private, each with a setter
+     */
+    private static String classText(String className, String superClassName) {
+        var text = new StringBuilder()
+                .append("public class ")
+                .append(className)
+                .append(superClassName == null ? "" : " extends " + superClassName)
+                .append(" {\n");
+        var prefix = className.toLowerCase();
+        for (int i = 0; i < FIELDS_PER_LEVEL; i++) {
+            var fieldName = prefix + i;
+            text.append("private String ").append(fieldName).append(";\n")
+                    .append("public void set").append(StringUtil.capitalize(fieldName))
+                    .append("(String ").append(fieldName).append(") {")
+                    .append("this.").append(fieldName).append(" = ").append(fieldName).append(";}\n");
+        }
+        return text.append("}\n").toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/**
+ * Runs the generators on the first class of the configured file, with all of its fields selected.
+ */
+public abstract class GeneratorTestCase extends LightJavaCodeInsightFixtureTestCase {
+
+    @Override
+    protected @NotNull LightProjectDescriptor getProjectDescriptor() {
+        return JAVA_17;
+    }
+
+    protected PsiClass targetClass() {
+        return ((PsiJavaFile) myFixture.getFile()).getClasses()[0];
+    }
+
+    protected GenerationResult generate(Set<JavaInnerBuilderOption> options) {
+        var targetClass = targetClass();
+        var selectedFields = FieldCollector.builder()
+                .targetClass(targetClass)
+                .build()
+                .collectFields();
+        var generator = GeneratorFactory.create().createInnerBuilderGenerator(targetClass, selectedFields, options);
+        return WriteCommandAction.writeCommandAction(getProject()).compute(generator::generate);
+    }
+
+    /**
+     * Fails with the errors of the configured file, e.g. generated code that does not compile.
+     */
+    protected void assertNoErrors() {
+        var errors = myFixture.doHighlighting(HighlightSeverity.ERROR).stream()
+                .map(info -> info.getDescription() + ": " + info.getText())
+                .toList();
+        assertEmpty(myFixture.getFile().getText(), errors);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.testFramework.PlatformTestUtil;
+
+import java.util.EnumSet;
+
+/**
+ * Cost of the import cleanup and reference shortening passes in a 5000-line file. Both passes visit the generated
+ * members only, so the code of the class keeps its unused import and its qualified references.
+ */
+public class ImportCleanupPerformanceTest extends GeneratorTestCase {
+
+    private static final int LARGE_FILE_METHODS = 1_000;
+    //immutable copies of the Collection fields import java.util.List
+    private static final EnumSet<JavaInnerBuilderOption> OPTIONS = EnumSet.of(
+            JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD,
+            JavaInnerBuilderOption.IMMUTABLE_COLLECTIONS);
+
+    public void testSmallFile() {
+        assertCleanedUpWithin("small file", 500, classText(0));
+    }
+
+    public void testLargeFile() {
+        var text = classText(LARGE_FILE_METHODS);
+        assertTrue(text.lines().count() >= 5_000);
+        assertCleanedUpWithin("5000-line file", 1_500, text);
+    }
+
+    public void testLeavesCodeOfTheClassAlone() {
+        myFixture.configureByText("Dto.java", classText(LARGE_FILE_METHODS));
+        var result = generate(OPTIONS);
+        assertTrue(result.did(GenerationResult.Code.IMPORTS_ADDED));
+        var text = myFixture.getFile().getText();
+        assertTrue(text.contains("import java.util.Set;"));
+        assertTrue(text.contains("java.util.Deque<String> method0"));
+    }
+
+    private void assertCleanedUpWithin(String what, int expectedMs, String text) {
+        PlatformTestUtil.startPerformanceTest("clean up imports of " + what, expectedMs, () -> {
+                    var result = generate(OPTIONS);
+                    assertTrue(result.did(GenerationResult.Code.IMPORTS_ADDED));
+                })
+                .setup(() -> myFixture.configureByText("Dto.java", text))
+                .assertTiming();
+    }
+
+    /**
+     * @return class with ten fields and the given number of five-line methods using imported classes, along with an
+     * unused import and a qualified reference a whole-file pass would clean up
+     */
+    private static String classText(int methodCount) {
+        var text = new StringBuilder()
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.Collection;\n")
+                .append("import java.util.HashMap;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.Set;\n")
+                .append("public class Dto {\n")
+                .append("private Collection<String> names = new ArrayList<>();\n")
+                .append("private Collection<Integer> ids = new ArrayList<>();\n");
+        for (int i = 0; i < 8; i++) {
+            text.append("private String field").append(i).append(";\n");
+        }
+        text.append("public java.util.Deque<String> method0() {\n")
+                .append("return new java.util.ArrayDeque<>();\n")
+                .append("}\n");
+        for (int i = 1; i < methodCount; i++) {
+            text.append("public Map<String, Integer> method").append(i).append("(Collection<String> values) {\n")
+                    .append("Map<String, Integer> counts = new HashMap<>();\n")
+                    .append("values.forEach(value -> counts.merge(value, ").append(i).append(", Integer::sum));\n")
+                    .append("return counts;\n")
+                    .append("}\n");
+        }
+        return text.append("}\n").toString();
+    }
+}
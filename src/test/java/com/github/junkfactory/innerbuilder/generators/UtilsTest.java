@@ -0,0 +1,105 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Overload resolution of the methods builders add to collections with, against stubs of fastutil's primitive
+ * collections.
+ */
+public class UtilsTest extends LightJavaCodeInsightFixtureTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.ints;
+                public class IntArrayList {
+                    public boolean add(Integer k) { return true; }
+                    public boolean add(int k) { return true; }
+                    public boolean addAll(java.util.Collection<? extends Integer> c) { return true; }
+                }
+                """);
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.longs;
+                public class Long2ObjectOpenHashMap<V> {
+                    public V put(Long k, V v) { return v; }
+                    public V put(long k, V v) { return v; }
+                }
+                """);
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.longs;
+                public class Long2IntOpenHashMap {
+                    public Integer put(Long k, int v) { return v; }
+                    public int put(long k, Integer v) { return v; }
+                    public int put(long k, int v) { return v; }
+                }
+                """);
+        myFixture.addClass("""
+                package it.unimi.dsi.fastutil.longs;
+                public class LongIntPairList {
+                    public boolean put(Long k, int v) { return true; }
+                    public boolean put(long k, Integer v) { return true; }
+                }
+                """);
+        myFixture.addClass("""
+                import it.unimi.dsi.fastutil.ints.IntArrayList;
+                import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+                import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+                import it.unimi.dsi.fastutil.longs.LongIntPairList;
+                public class Holder {
+                    private IntArrayList ids = new IntArrayList();
+                    private Long2ObjectOpenHashMap<String> names = new Long2ObjectOpenHashMap<>();
+                    private Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+                    private LongIntPairList pairs = new LongIntPairList();
+                }
+                """);
+    }
+
+    public void testFindAddMethodPrefersPrimitiveOverload() {
+        var addMethod = Objects.requireNonNull(Utils.findAddMethod(findField("ids")));
+        assertParameterTypes(addMethod, "int");
+    }
+
+    public void testFindPutMethodPrefersPrimitiveKey() {
+        var putMethod = Objects.requireNonNull(Utils.findPutMethod(findField("names")));
+        assertParameterTypes(putMethod, "long", "V");
+    }
+
+    public void testFindPutMethodPrefersMostPrimitiveParameters() {
+        var putMethod = Objects.requireNonNull(Utils.findPutMethod(findField("counts")));
+        assertParameterTypes(putMethod, "long", "int");
+    }
+
+    public void testFindPutMethodKeepsFirstOverloadOnTie() {
+        var putMethod = Objects.requireNonNull(Utils.findPutMethod(findField("pairs")));
+        assertParameterTypes(putMethod, "Long", "int");
+    }
+
+    public void testFindMethodMissing() {
+        assertNull(Utils.findMethod(findField("ids"), "addAll", 2));
+        assertNotNull(Utils.findMethod(findField("ids"), "addAll", 1));
+    }
+
+    private PsiField findField(String name) {
+        var holderClass = Objects.requireNonNull(myFixture.findClass("Holder"));
+        return Objects.requireNonNull(holderClass.findFieldByName(name, false));
+    }
+
+    private static void assertParameterTypes(PsiMethod method, String... expectedTypes) {
+        var parameterTypes = Arrays.stream(method.getParameterList().getParameters())
+                .map(parameter -> parameter.getType().getPresentableText())
+                .toArray(String[]::new);
+        assertOrderedEquals(parameterTypes, expectedTypes);
+        for (int i = 0; i < expectedTypes.length; i++) {
+            var parameterType = method.getParameterList().getParameters()[i].getType();
+            assertEquals(Character.isLowerCase(expectedTypes[i].charAt(0)),
+                    parameterType instanceof PsiPrimitiveType);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.junkfactory.innerbuilder.generators;
+
+import com.github.junkfactory.innerbuilder.ui.JavaInnerBuilderOption;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifier;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * Constructors the withers of a class create their copies with.
+ */
+public class WitherGeneratorTest extends GeneratorTestCase {
+
+    private static final EnumSet<JavaInnerBuilderOption> OPTIONS = EnumSet.of(
+            JavaInnerBuilderOption.WITH_WITHER_METHODS);
+
+    public void testPackagePrivateConstructor() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private final String name;
+                    private final int age;
+                }
+                """);
+        generate(OPTIONS);
+        var constructor = findConstructor(2);
+        assertTrue(constructor.hasModifierProperty(PsiModifier.PACKAGE_LOCAL));
+        assertTrue(myFixture.getFile().getText().contains("return new Dto(this.name, age);"));
+        assertNoErrors();
+    }
+
+    public void testDistinguishedFromDeclaredConstructor() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private final String name;
+                    private final int age;
+                    public Dto(String name, int age) {
+                        this.name = name.trim();
+                        this.age = Math.max(0, age);
+                    }
+                }
+                """);
+        generate(OPTIONS);
+        var constructor = findConstructor(3);
+        assertTrue(constructor.hasModifierProperty(PsiModifier.PRIVATE));
+        assertTrue(myFixture.getFile().getText().contains("return new Dto(this.name, age, (Void) null);"));
+        assertNoErrors();
+    }
+
+    public void testRegenerationKeepsConstructor() {
+        myFixture.configureByText("Dto.java", """
+                public class Dto {
+                    private final String name;
+                    private final int age;
+                }
+                """);
+        generate(OPTIONS);
+        generate(OPTIONS);
+        //the constructor taking the builder and the one of the withers
+        assertEquals(2, targetClass().getConstructors().length);
+        assertTrue(findConstructor(2).hasModifierProperty(PsiModifier.PACKAGE_LOCAL));
+    }
+
+    private PsiMethod findConstructor(int parameterCount) {
+        return Arrays.stream(targetClass().getConstructors())
+                .filter(constructor -> constructor.getParameterList().getParametersCount() == parameterCount)
+                .findFirst()
+                .orElseThrow();
+    }
+}
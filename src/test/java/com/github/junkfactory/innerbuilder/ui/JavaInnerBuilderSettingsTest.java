@@ -0,0 +1,57 @@
+package com.github.junkfactory.innerbuilder.ui;
+
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State handed to the serializer while options are set from other threads.
+ */
+public class JavaInnerBuilderSettingsTest extends LightJavaCodeInsightFixtureTestCase {
+
+    private static final int CLASS_COUNT = 1_000;
+
+    public void testStateIsACopy() {
+        var settings = new JavaInnerBuilderSettings();
+        settings.setOptions("a.Dto", EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD), true);
+        var state = settings.getState();
+        settings.setOptions("a.Other", EnumSet.of(JavaInnerBuilderOption.WITH_RESET_METHOD), true);
+        assertSize(1, state.classOptions);
+        assertSize(2, settings.getState().classOptions);
+    }
+
+    public void testStateReadWhileOptionsAreSet() throws Exception {
+        var settings = new JavaInnerBuilderSettings();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var start = new CountDownLatch(1);
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CLASS_COUNT; i++) {
+                    settings.setOptions("a.Dto" + i, EnumSet.of(JavaInnerBuilderOption.WITH_TO_BUILDER_METHOD), true);
+                }
+                return null;
+            });
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CLASS_COUNT; i++) {
+                    //what the serializer does with the state
+                    new ArrayList<>(settings.getState().classOptions).forEach(classState -> classState.options.size());
+                }
+                return null;
+            });
+            start.countDown();
+            writer.get(30, TimeUnit.SECONDS);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertSize(CLASS_COUNT, settings.getState().classOptions);
+    }
+}